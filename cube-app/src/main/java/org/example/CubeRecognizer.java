@@ -0,0 +1,207 @@
+package org.example;
+
+import nu.pattern.OpenCV;
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfPoint;
+import org.opencv.core.Rect;
+import org.opencv.core.Size;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Reads a cube's state off photos of its six faces. Each face photo is decoded at reduced
+ * resolution, its sticker grid is found from the outlines of the square stickers, and a small
+ * patch at each of the nine sticker centers is averaged and classified through a
+ * {@link ColorTable}, one lookup per sticker.
+ *
+ * <p>A set of photos is a directory with one image per face, named after the face: {@code U.jpg},
+ * {@code R.jpg} and so on. Side faces are photographed upright, with U at the top; U with F at
+ * the bottom of the picture and D with F at the top, which is how each face lies in the usual
+ * cube net.
+ *
+ * <p>Recognizers are thread-safe. {@code main} reads any number of sets in parallel and prints
+ * the facelets of each, for bulk imports.
+ */
+public final class CubeRecognizer {
+
+    static {
+        OpenCV.loadLocally();
+    }
+
+    private static final String FACES = "URFDLB";
+    private static final int WORK_SIZE = 320; // longest image side the grid search works at
+    private static final Mat KERNEL = Imgproc.getStructuringElement(Imgproc.MORPH_RECT, new Size(3, 3));
+
+    private final ColorTable colors;
+
+    public CubeRecognizer(ColorTable colors) {
+        this.colors = colors;
+    }
+
+    /** Recognizes the set of face photos in {@code dir}. */
+    public CubeState recognize(Path dir) throws IOException {
+        Path[] faces = new Path[FACES.length()];
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                String name = p.getFileName().toString();
+                int dot = name.lastIndexOf('.');
+                String base = (dot < 0 ? name : name.substring(0, dot)).toUpperCase(Locale.ROOT);
+                int face = base.length() == 1 ? FACES.indexOf(base.charAt(0)) : -1;
+                if (face >= 0) faces[face] = p;
+            }
+        }
+        for (int f = 0; f < faces.length; f++) {
+            if (faces[f] == null) throw new IOException("No photo of face " + FACES.charAt(f) + " in " + dir);
+        }
+        return recognize(Arrays.asList(faces));
+    }
+
+    /**
+     * Recognizes six face photos in U, R, F, D, L, B order. Throws IllegalArgumentException,
+     * naming the face, when a sticker cannot be classified or the colors are not a real cube.
+     */
+    public CubeState recognize(List<Path> faces) throws IOException {
+        if (faces.size() != FACES.length()) throw new IllegalArgumentException("Need 6 face photos, got " + faces.size());
+        CubeColor[] stickers = new CubeColor[CubeState.FACELETS];
+        for (int f = 0; f < FACES.length(); f++) readFace(faces.get(f), stickers, f * 9, FACES.charAt(f));
+        return CubeState.fromColors(stickers);
+    }
+
+    private void readFace(Path photo, CubeColor[] out, int offset, char face) throws IOException {
+        // JPEG decoding at a quarter of the size skips most of the work of a full decode
+        Mat image = Imgcodecs.imread(photo.toString(), Imgcodecs.IMREAD_REDUCED_COLOR_4);
+        if (image.empty()) throw new IOException("Cannot read image " + photo);
+        try {
+            int longest = Math.max(image.cols(), image.rows());
+            if (longest > WORK_SIZE) {
+                double scale = (double) WORK_SIZE / longest;
+                Imgproc.resize(image, image, new Size(image.cols() * scale, image.rows() * scale), 0, 0, Imgproc.INTER_AREA);
+            }
+            double[] grid = findGrid(image);
+            int patch = Math.max(1, (int) (grid[2] / 4));
+            for (int row = 0; row < 3; row++) {
+                for (int col = 0; col < 3; col++) {
+                    int cx = (int) (grid[0] + col * grid[2]), cy = (int) (grid[1] + row * grid[2]);
+                    Rect r = clip(new Rect(cx - patch, cy - patch, 2 * patch, 2 * patch), image);
+                    Mat sample = image.submat(r);
+                    double[] bgr = Core.mean(sample).val;
+                    sample.release();
+                    CubeColor c = colors.classify((int) bgr[2], (int) bgr[1], (int) bgr[0]);
+                    if (c == CubeColor.UNKNOWN) {
+                        throw new IllegalArgumentException("Face " + face + ": no sticker color at row " + row + ", column " + col);
+                    }
+                    out[offset + row * 3 + col] = c;
+                }
+            }
+        } finally {
+            image.release();
+        }
+    }
+
+    /**
+     * Finds the sticker grid: the center of the top-left sticker and the distance between
+     * sticker centers, as {x, y, pitch}. Falls back to a grid filling the middle of the photo
+     * when too few stickers stand out.
+     */
+    private static double[] findGrid(Mat image) {
+        Mat gray = new Mat(), edges = new Mat(), hierarchy = new Mat();
+        List<MatOfPoint> contours = new ArrayList<>();
+        try {
+            Imgproc.cvtColor(image, gray, Imgproc.COLOR_BGR2GRAY);
+            Imgproc.GaussianBlur(gray, gray, new Size(5, 5), 0);
+            Imgproc.Canny(gray, edges, 30, 90);
+            Imgproc.dilate(edges, edges, KERNEL);
+            Imgproc.findContours(edges, contours, hierarchy, Imgproc.RETR_LIST, Imgproc.CHAIN_APPROX_SIMPLE);
+            double imageArea = (double) image.cols() * image.rows();
+            List<double[]> squares = new ArrayList<>(); // center x, center y, side
+            for (MatOfPoint c : contours) {
+                Rect r = Imgproc.boundingRect(c);
+                double aspect = (double) r.width / r.height;
+                double area = r.area();
+                if (aspect > 0.7 && aspect < 1.4 && area > imageArea / 400 && area < imageArea / 12
+                        && Imgproc.contourArea(c) > 0.6 * area) {
+                    squares.add(new double[]{r.x + r.width / 2.0, r.y + r.height / 2.0, (r.width + r.height) / 2.0});
+                }
+            }
+            double[] grid = fitGrid(squares);
+            if (grid != null) return grid;
+            double side = 0.8 * Math.min(image.cols(), image.rows());
+            return new double[]{(image.cols() - side) / 2 + side / 6, (image.rows() - side) / 2 + side / 6, side / 3};
+        } finally {
+            for (MatOfPoint c : contours) c.release();
+            gray.release();
+            edges.release();
+            hierarchy.release();
+        }
+    }
+
+    /**
+     * Fits a 3x3 grid to candidate stickers: keeps those near the median size, merges
+     * outlines found twice, and spans the grid between the outermost centers. Null unless the
+     * stickers cover all three rows and columns.
+     */
+    static double[] fitGrid(List<double[]> squares) {
+        if (squares.size() < 4) return null;
+        double[] sides = squares.stream().mapToDouble(s -> s[2]).sorted().toArray();
+        double median = sides[sides.length / 2];
+        List<double[]> kept = new ArrayList<>();
+        for (double[] s : squares) {
+            if (Math.abs(s[2] - median) > 0.35 * median) continue;
+            boolean duplicate = false;
+            for (double[] k : kept) {
+                duplicate |= Math.abs(k[0] - s[0]) < median / 2 && Math.abs(k[1] - s[1]) < median / 2;
+            }
+            if (!duplicate) kept.add(s);
+        }
+        if (kept.size() < 4) return null;
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (double[] k : kept) {
+            minX = Math.min(minX, k[0]);
+            maxX = Math.max(maxX, k[0]);
+            minY = Math.min(minY, k[1]);
+            maxY = Math.max(maxY, k[1]);
+        }
+        double pitchX = (maxX - minX) / 2, pitchY = (maxY - minY) / 2;
+        // the outermost stickers must be two sticker pitches apart both ways
+        if (pitchX < 0.8 * median || pitchX > 2 * median || Math.abs(pitchX - pitchY) > 0.25 * pitchX) return null;
+        return new double[]{minX, minY, (pitchX + pitchY) / 2};
+    }
+
+    private static Rect clip(Rect r, Mat image) {
+        int x = Math.max(0, Math.min(r.x, image.cols() - 1)), y = Math.max(0, Math.min(r.y, image.rows() - 1));
+        int w = Math.max(1, Math.min(r.width, image.cols() - x)), h = Math.max(1, Math.min(r.height, image.rows() - y));
+        return new Rect(x, y, w, h);
+    }
+
+    /** Recognizes every photo set directory given and prints one line per set. */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("usage: CubeRecognizer <photo set dir>...");
+            System.exit(2);
+        }
+        CubeRecognizer recognizer = new CubeRecognizer(ColorTable.standard());
+        long start = System.nanoTime();
+        List<String> lines = Arrays.stream(args).parallel().map(dir -> {
+            try {
+                return dir + " " + recognizer.recognize(Path.of(dir)).toFaceletString();
+            } catch (IOException | IllegalArgumentException e) {
+                return dir + " error: " + e.getMessage();
+            }
+        }).toList();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        lines.forEach(System.out::println);
+        long failed = lines.stream().filter(l -> l.contains(" error: ")).count();
+        System.err.printf("%d sets, %d failed, %.2fs (%.0f sets/s)%n", args.length, failed, seconds, args.length / seconds);
+        System.exit(failed == 0 ? 0 : 1);
+    }
+}
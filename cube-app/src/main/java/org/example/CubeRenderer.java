@@ -0,0 +1,182 @@
+package org.example;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.opengl.GL;
+import com.jogamp.opengl.GL2;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import javax.vecmath.Vector3f;
+
+/**
+ * Draws the cubies from vertex buffer objects. Sticker quads and wireframe edges are uploaded
+ * once when the GL context is created; afterwards only the quad colors are re-uploaded, and
+ * only after {@link #invalidate()}. A frame is two draw calls and allocates nothing; while a
+ * move is animating, the cubies it turns are drawn as a second group under the layer rotation.
+ */
+final class CubeRenderer {
+
+    private static final int QUAD_VERTICES = 4;
+    private static final int EDGE_VERTICES = 24;
+    private static final float S = 0.5f;
+
+    // the twelve cube edges as pairs of corners, in units of S
+    private static final float[] EDGES = {
+            -1, -1,  1,   1, -1,  1,    1, -1,  1,   1,  1,  1,
+             1,  1,  1,  -1,  1,  1,   -1,  1,  1,  -1, -1,  1,
+            -1, -1, -1,   1, -1, -1,    1, -1, -1,   1,  1, -1,
+             1,  1, -1,  -1,  1, -1,   -1,  1, -1,  -1, -1, -1,
+            -1, -1,  1,  -1, -1, -1,    1, -1,  1,   1, -1, -1,
+             1,  1,  1,   1,  1, -1,   -1,  1,  1,  -1,  1, -1
+    };
+
+    private final Cubie[] cubies;
+    private final int quadVertices;
+    private final int edgeVertices;
+    private final FloatBuffer colors;
+    private final int[] buffers = new int[2]; // positions (quads then edges), quad colors
+    private volatile boolean dirty = true;
+
+    // vertex ranges of the cubies inside and outside the turning layers, per axis and layer mask
+    private record Group(int[] quadFirst, int[] quadCount, int[] edgeFirst, int[] edgeCount) {}
+    private final Group[][] groups = new Group[3 * 8][2];
+
+    CubeRenderer(Cubie[] cubies) {
+        this.cubies = cubies;
+        int quads = 0;
+        for (Cubie c : cubies) quads += c.getFaces().length;
+        this.quadVertices = quads * QUAD_VERTICES;
+        this.edgeVertices = cubies.length * EDGE_VERTICES;
+        this.colors = Buffers.newDirectFloatBuffer(quadVertices * 3);
+        for (int axis = 0; axis < 3; axis++) {
+            for (int layers = 1; layers < 8; layers++) {
+                groups[axis * 8 + layers][0] = group(axis, layers, false);
+                groups[axis * 8 + layers][1] = group(axis, layers, true);
+            }
+        }
+    }
+
+    private Group group(int axis, int layers, boolean turning) {
+        List<Integer> members = new ArrayList<>();
+        for (int i = 0; i < cubies.length; i++) {
+            Cubie c = cubies[i];
+            int coord = axis == CubeState.X ? c.getX() : axis == CubeState.Y ? c.getY() : c.getZ();
+            boolean inLayers = (layers >> (coord + 1) & 1) == 1;
+            if (inLayers == turning) members.add(i);
+        }
+        int n = members.size();
+        Group g = new Group(new int[n], new int[n], new int[n], new int[n]);
+        for (int k = 0; k < n; k++) {
+            int i = members.get(k);
+            int first = 0;
+            for (int j = 0; j < i; j++) first += cubies[j].getFaces().length * QUAD_VERTICES;
+            g.quadFirst[k] = first;
+            g.quadCount[k] = cubies[i].getFaces().length * QUAD_VERTICES;
+            g.edgeFirst[k] = quadVertices + i * EDGE_VERTICES;
+            g.edgeCount[k] = EDGE_VERTICES;
+        }
+        return g;
+    }
+
+    /** Uploads the geometry; call from {@code GLEventListener.init}. */
+    void init(GL2 gl) {
+        FloatBuffer positions = Buffers.newDirectFloatBuffer((quadVertices + edgeVertices) * 3);
+        for (Cubie c : cubies) {
+            for (Face f : c.getFaces()) putQuad(positions, c, f.getNormal());
+        }
+        for (Cubie c : cubies) {
+            for (int i = 0; i < EDGES.length; i += 3) {
+                positions.put(c.getX() + EDGES[i] * S).put(c.getY() + EDGES[i + 1] * S).put(c.getZ() + EDGES[i + 2] * S);
+            }
+        }
+        positions.flip();
+
+        gl.glGenBuffers(buffers.length, buffers, 0);
+        gl.glBindBuffer(GL.GL_ARRAY_BUFFER, buffers[0]);
+        gl.glBufferData(GL.GL_ARRAY_BUFFER, (long) positions.limit() * Float.BYTES, positions, GL.GL_STATIC_DRAW);
+        gl.glBindBuffer(GL.GL_ARRAY_BUFFER, buffers[1]);
+        gl.glBufferData(GL.GL_ARRAY_BUFFER, (long) colors.capacity() * Float.BYTES, null, GL.GL_DYNAMIC_DRAW);
+        gl.glBindBuffer(GL.GL_ARRAY_BUFFER, 0);
+        dirty = true;
+    }
+
+    /** Marks the face colors as changed; they are re-uploaded before the next frame. */
+    void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * Draws the cube in the current model-view transform. When {@code turning} is not null,
+     * the cubies in its layers are drawn under the column-major {@code rotation}.
+     */
+    void draw(GL2 gl, Move turning, float[] rotation) {
+        if (dirty) {
+            dirty = false;
+            uploadColors(gl);
+        }
+        gl.glEnableClientState(GL2.GL_VERTEX_ARRAY);
+        gl.glBindBuffer(GL.GL_ARRAY_BUFFER, buffers[0]);
+        gl.glVertexPointer(3, GL.GL_FLOAT, 0, 0L);
+        gl.glBindBuffer(GL.GL_ARRAY_BUFFER, buffers[1]);
+        gl.glColorPointer(3, GL.GL_FLOAT, 0, 0L);
+
+        if (turning == null) {
+            gl.glEnableClientState(GL2.GL_COLOR_ARRAY);
+            gl.glDrawArrays(GL2.GL_QUADS, 0, quadVertices);
+            gl.glDisableClientState(GL2.GL_COLOR_ARRAY);
+            gl.glColor3f(0f, 0f, 0f);
+            gl.glDrawArrays(GL.GL_LINES, quadVertices, edgeVertices);
+        } else {
+            Group[] split = groups[turning.axis() * 8 + turning.layers()];
+            drawGroup(gl, split[0]);
+            gl.glPushMatrix();
+            gl.glMultMatrixf(rotation, 0);
+            drawGroup(gl, split[1]);
+            gl.glPopMatrix();
+        }
+
+        gl.glDisableClientState(GL2.GL_VERTEX_ARRAY);
+        gl.glBindBuffer(GL.GL_ARRAY_BUFFER, 0);
+    }
+
+    private static void drawGroup(GL2 gl, Group g) {
+        int n = g.quadFirst.length;
+        if (n == 0) return;
+        gl.glEnableClientState(GL2.GL_COLOR_ARRAY);
+        gl.glMultiDrawArrays(GL2.GL_QUADS, g.quadFirst, 0, g.quadCount, 0, n);
+        gl.glDisableClientState(GL2.GL_COLOR_ARRAY);
+        gl.glColor3f(0f, 0f, 0f);
+        gl.glMultiDrawArrays(GL.GL_LINES, g.edgeFirst, 0, g.edgeCount, 0, n);
+    }
+
+    void dispose(GL2 gl) {
+        gl.glDeleteBuffers(buffers.length, buffers, 0);
+    }
+
+    private void uploadColors(GL2 gl) {
+        colors.clear();
+        for (Cubie c : cubies) {
+            for (Face f : c.getFaces()) {
+                float[] rgb = f.getColor();
+                for (int v = 0; v < QUAD_VERTICES; v++) colors.put(rgb, 0, 3);
+            }
+        }
+        colors.flip();
+        gl.glBindBuffer(GL.GL_ARRAY_BUFFER, buffers[1]);
+        gl.glBufferSubData(GL.GL_ARRAY_BUFFER, 0, (long) colors.limit() * Float.BYTES, colors);
+    }
+
+    /** The unit square on the side of cubie {@code c} facing {@code n}. */
+    private static void putQuad(FloatBuffer out, Cubie c, Vector3f n) {
+        float[] centre = {c.getX() + S * n.x, c.getY() + S * n.y, c.getZ() + S * n.z};
+        int axis = n.x != 0 ? 0 : n.y != 0 ? 1 : 2;
+        int u = (axis + 1) % 3, v = (axis + 2) % 3; // the two axes spanning the face
+        float[] p = new float[3];
+        for (int k = 0; k < QUAD_VERTICES; k++) {
+            System.arraycopy(centre, 0, p, 0, 3);
+            p[u] += k == 1 || k == 2 ? S : -S;
+            p[v] += k >= 2 ? S : -S;
+            out.put(p);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example;
+
+import javax.vecmath.Matrix3f;
+import javax.vecmath.Vector3f;
+
+public class Cubie {
+
+    private final Matrix3f matrix;
+    private final Vector3f translation;
+    private int x, y, z;
+    private final org.example.Face[] faces;
+
+    public Cubie(Matrix3f m, Vector3f t, int x, int y, int z) {
+        this.matrix = m;
+        this.translation = t;
+        this.x = x; this.y = y; this.z = z;
+        this.faces = createFaces();
+    }
+
+    public Face[] getFaces() { return faces; }
+
+    public int getX() { return x; }
+    public int getY() { return y; }
+    public int getZ() { return z; }
+
+    private Face[] createFaces() {
+        return new Face[] {
+                new Face(new Vector3f(0, 0, -1), new float[]{0f, 0f, 1f}),   // Blue
+                new Face(new Vector3f(0, 0, 1),  new float[]{0f, 1f, 0f}),   // Green
+                new Face(new Vector3f(0, 1, 0),  new float[]{1f, 1f, 1f}),   // White
+                new Face(new Vector3f(0, -1, 0), new float[]{1f, 1f, 0f}),   // Yellow
+                new Face(new Vector3f(1, 0, 0),  new float[]{1f, 0.6f, 0f}), // Orange
+                new Face(new Vector3f(-1, 0, 0), new float[]{1f, 0f, 0f})    // Red
+        };
+    }
+
+    public void update(int x, int y, int z) {
+        this.x = x; this.y = y; this.z = z;
+        matrix.setIdentity();
+        translation.set(x, y, z);
+    }
+}
@@ -0,0 +1,19 @@
+package org.example;
+
+import javax.vecmath.Vector3f;
+
+public class Face {
+
+    private final Vector3f normal;
+    private float[] color;
+
+    public Face(Vector3f n, float[] c) {
+        this.normal = new Vector3f(n);
+        this.color = c;
+    }
+
+    // accessors for scanner
+    public Vector3f getNormal() { return new Vector3f(normal); }
+    public void setColor(float[] rgb) { this.color = rgb; }
+    public float[] getColor() { return color; }
+}
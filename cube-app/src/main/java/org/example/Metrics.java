@@ -0,0 +1,142 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Where the game's time goes. Hot paths record into always-on {@link LatencyHistogram}s and
+ * emit Flight Recorder events, which cost next to nothing unless a recording enables them
+ * ({@code -XX:StartFlightRecording} or JDK Mission Control).
+ *
+ * <p>With {@code -Dcube.metricsFile=PATH}, a summary of every histogram and every registered
+ * set of {@link #counters} is appended to that file every {@code cube.metricsSeconds} seconds
+ * (default 60) from a daemon thread.
+ */
+final class Metrics {
+
+    /** Key press to the render thread taking the move into the model. */
+    static final LatencyHistogram MOVE_LATENCY = new LatencyHistogram("move latency");
+    static final LatencyHistogram FRAME_TIME = new LatencyHistogram("frame time");
+    static final LatencyHistogram SOLVE_CHECK = new LatencyHistogram("solve check");
+    static final LatencyHistogram SCRAMBLE = new LatencyHistogram("scramble");
+    /** Hint key to the hint being ready, whether cached or searched; cache counters are under "hints". */
+    static final LatencyHistogram HINT_LATENCY = new LatencyHistogram("hint latency");
+
+    private static final List<LatencyHistogram> ALL = List.of(MOVE_LATENCY, FRAME_TIME, SOLVE_CHECK, SCRAMBLE, HINT_LATENCY);
+
+    // one line of counters per source, by name
+    private static final Map<String, Supplier<String>> COUNTERS = new ConcurrentSkipListMap<>();
+
+    private static ScheduledExecutorService dumper;
+
+    private Metrics() {
+    }
+
+    @Name("org.example.Frame")
+    @Label("Frame")
+    @Category("Rubik's Cube")
+    @StackTrace(false)
+    static final class FrameEvent extends Event {
+        @Label("Turn Animating")
+        boolean animating;
+    }
+
+    @Name("org.example.Move")
+    @Label("Move")
+    @Category("Rubik's Cube")
+    @Description("A move taken from the input queue into the model")
+    @StackTrace(false)
+    static final class MoveEvent extends Event {
+        @Label("Move")
+        String move;
+
+        @Label("Latency")
+        @Description("Key press to the move reaching the render thread")
+        @Timespan(Timespan.NANOSECONDS)
+        long latency;
+    }
+
+    @Name("org.example.SolveCheck")
+    @Label("Solve Check")
+    @Category("Rubik's Cube")
+    @StackTrace(false)
+    static final class SolveCheckEvent extends Event {
+        @Label("Solved")
+        boolean solved;
+    }
+
+    @Name("org.example.Scramble")
+    @Label("Scramble")
+    @Category("Rubik's Cube")
+    @StackTrace(false)
+    static final class ScrambleEvent extends Event {
+        @Label("Difficulty")
+        String difficulty;
+
+        @Label("Moves")
+        int moves;
+    }
+
+    /** Records a drained move's queue time and emits its event if a recording wants it. */
+    static void moveTaken(Move move, long latencyNanos) {
+        MOVE_LATENCY.record(latencyNanos);
+        MoveEvent event = new MoveEvent();
+        if (event.shouldCommit()) {
+            event.move = move.notation();
+            event.latency = latencyNanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * Adds a line of counters to every dump, read from {@code source} at dump time. A later
+     * source under the same name replaces the earlier one, so each game can register its own.
+     */
+    static void counters(String name, Supplier<String> source) {
+        COUNTERS.put(name, source);
+    }
+
+    /** Starts the periodic file dump when {@code cube.metricsFile} is set; safe to call more than once. */
+    static synchronized void startDump() {
+        String file = System.getProperty("cube.metricsFile");
+        if (file == null || dumper != null) return;
+        long seconds = Long.getLong("cube.metricsSeconds", 60);
+        Path path = Path.of(file);
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        dumper.scheduleAtFixedRate(() -> dump(path), seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    /** Appends one summary of every histogram and counter source to {@code path}. */
+    static void dump(Path path) {
+        StringBuilder sb = new StringBuilder(Instant.now().toString()).append('\n');
+        for (LatencyHistogram h : ALL) sb.append("  ").append(h).append('\n');
+        for (Supplier<String> c : COUNTERS.values()) sb.append("  ").append(c.get()).append('\n');
+        try {
+            Files.writeString(path, sb, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Metrics dump to " + path + " failed: " + e.getMessage());
+        }
+    }
+}
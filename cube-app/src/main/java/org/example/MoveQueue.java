@@ -0,0 +1,110 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves on their way from input threads to the render thread. Any number of threads may
+ * {@link #offer}; one thread drains. Offers never block: they claim a slot with a single
+ * compare-and-set on a fixed ring, and only a full ring refuses a move, which is counted.
+ *
+ * <p>The draining side keeps a backlog of moves not yet played and simplifies it as batches
+ * arrive, so {@code R R} becomes {@code R2} and {@code R R'} disappears before either is
+ * animated.
+ */
+final class MoveQueue {
+
+    private final AtomicReferenceArray<Move> ring;
+    private final long[] offeredAt; // nanoTime of each slot's offer, published by the slot's move
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // next slot to claim
+    private final AtomicLong head = new AtomicLong(); // next slot to drain, written by the consumer only
+
+    private final LongAdder offered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile long coalesced; // written by the consumer only
+    private volatile int maxDepth;
+    private long taken; // moves drained from the ring, consumer side
+
+    // consumer side
+    private List<Move> backlog = new ArrayList<>();
+    private final List<Move> batch = new ArrayList<>();
+
+    /** Creates a queue holding up to {@code capacity} undrained moves, rounded up to a power of two. */
+    MoveQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.offeredAt = new long[size];
+        this.mask = size - 1;
+    }
+
+    /** Adds a move without blocking; returns false, and counts a drop, only if the ring is full. */
+    boolean offer(Move move) {
+        offered.increment();
+        while (true) {
+            long t = tail.get();
+            if (t - head.get() > mask) {
+                dropped.increment();
+                return false;
+            }
+            if (tail.compareAndSet(t, t + 1)) {
+                offeredAt[(int) t & mask] = System.nanoTime();
+                ring.lazySet((int) t & mask, move);
+                return true;
+            }
+        }
+    }
+
+    /** True when nothing is waiting in the ring or the backlog; consumer thread only. */
+    boolean isEmpty() {
+        return backlog.isEmpty() && tail.get() == head.get();
+    }
+
+    /**
+     * Moves everything offered so far into the backlog and simplifies it; consumer thread only.
+     * Returns the backlog, oldest first, for the caller to take moves from the front. Each
+     * move's time in the ring goes to {@link Metrics#MOVE_LATENCY}.
+     */
+    List<Move> drain() {
+        long h = head.get();
+        long now = System.nanoTime();
+        Move m;
+        while ((m = ring.get((int) h & mask)) != null) {
+            ring.lazySet((int) h & mask, null);
+            Metrics.moveTaken(m, now - offeredAt[(int) h & mask]);
+            batch.add(m);
+            h++;
+        }
+        head.set(h);
+        if (batch.isEmpty()) return backlog;
+
+        taken += batch.size();
+        int before = backlog.size() + batch.size();
+        backlog.addAll(batch);
+        batch.clear();
+        backlog = Algorithm.simplify(backlog);
+        coalesced += before - backlog.size();
+        maxDepth = Math.max(maxDepth, backlog.size());
+        return backlog;
+    }
+
+    /** How many moves have been drained so far, so the consumer can tell new ones arrived. */
+    long taken() {
+        return taken;
+    }
+
+    /** Drops every waiting move; consumer thread only. */
+    void clear() {
+        drain();
+        backlog.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "Input: " + offered.sum() + " moves, " + coalesced + " coalesced, max backlog " + maxDepth
+                + ", " + dropped.sum() + " dropped";
+    }
+}
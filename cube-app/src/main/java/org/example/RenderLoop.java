@@ -0,0 +1,63 @@
+package org.example;
+
+import com.jogamp.opengl.GLAutoDrawable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Redraws a drawable only when asked to. Any thread may call {@link #requestFrame()}; requests
+ * arriving before the next frame starts are merged into it. While {@code animating} reports
+ * true, frames keep coming at up to {@code maxFps}; otherwise the render thread sleeps and an
+ * idle window costs no CPU at all.
+ */
+final class RenderLoop implements Runnable {
+
+    private final GLAutoDrawable drawable;
+    private final BooleanSupplier animating;
+    private final long minFrameNanos;
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final Thread thread;
+    private volatile boolean running;
+
+    RenderLoop(GLAutoDrawable drawable, int maxFps, BooleanSupplier animating) {
+        this.drawable = drawable;
+        this.animating = animating;
+        this.minFrameNanos = TimeUnit.SECONDS.toNanos(1) / maxFps;
+        this.thread = new Thread(this, "render");
+        thread.setDaemon(true);
+    }
+
+    void start() {
+        running = true;
+        thread.start();
+        requestFrame();
+    }
+
+    /** Stops the loop after the frame in progress, if any. */
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    /** Schedules a redraw; cheap and non-blocking, so safe to call on every input event. */
+    void requestFrame() {
+        if (!pending.getAndSet(true)) LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void run() {
+        long lastFrame = System.nanoTime() - minFrameNanos;
+        while (running) {
+            if (!pending.getAndSet(false) && !animating.getAsBoolean()) {
+                LockSupport.park(this);
+                continue;
+            }
+            long wait;
+            while ((wait = lastFrame + minFrameNanos - System.nanoTime()) > 0) LockSupport.parkNanos(this, wait);
+            lastFrame = System.nanoTime();
+            if (running) drawable.display();
+        }
+    }
+}
@@ -0,0 +1,918 @@
+package org.example;
+
+import com.jogamp.newt.event.*;
+import com.jogamp.newt.opengl.GLWindow;
+import com.jogamp.opengl.*;
+import com.jogamp.opengl.glu.GLU;
+import com.jogamp.opengl.util.gl2.GLUT;
+import javax.vecmath.Matrix3f;
+import javax.vecmath.Vector3f;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.Stage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/** Interactive Rubik’s Cube puzzle with standard 6-color faces, each with 9 minifaces. */
+public class RubiksCube implements GLEventListener, KeyListener, MouseListener {
+
+    // ---------- static ----------
+    private static final int DIM = 3;
+    private static RubiksCube instance; // For JavaFX to access JOGL
+
+    // Solver tables are mapped (or built on the very first run) in the background
+    private static final CompletableFuture<TwoPhaseSolver> SOLVER = CompletableFuture.supplyAsync(() -> {
+        try {
+            return TwoPhaseSolver.load();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    });
+
+    // Next-move hints, searched on their own background thread and cached per state
+    private static final CompletableFuture<HintEngine> HINT_ENGINE =
+            SOLVER.thenApply(s -> new HintEngine(s, 1 << 14, Long.getLong("cube.hintMillis", 5)));
+
+    // Graded puzzles per difficulty, refilled in the background once the solver is ready and kept between runs
+    private static final PuzzlePool PUZZLES = PuzzlePool.open(PuzzlePool.defaultPath(), Integer.getInteger("cube.poolSize", 32));
+
+    // Optimal distances take from seconds to hours, so they run on one low-priority daemon thread
+    private static final ExecutorService GRADER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "optimal-grader");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+    private static OptimalSolver optimalSolver; // GRADER's threads over the shared database, only touched by GRADER
+
+    // The optimal solver's pattern database, shared by GRADER and the puzzle pool and loaded (built
+    // on the very first run) once, when either first needs it
+    private static CompletableFuture<OptimalSolver> optimalLoad;
+
+    // ---------- scene objects ----------
+    private final Cubie[] cube = new Cubie[DIM * DIM * DIM];
+    private final CubeState state = new CubeState(); // owned by the render thread
+
+    /**
+     * What other threads may see of the model: a private copy taken after each committed
+     * turn, never written again. Publishing swaps one volatile reference, so readers get the
+     * latest whole state without locks and can never observe a half-applied turn.
+     */
+    private record Snapshot(long version, CubeState state, boolean solved) {}
+    private volatile Snapshot published = new Snapshot(0, new CubeState(), true);
+    private final Face[] stickers = new Face[CubeState.FACELETS]; // view face of each facelet
+    private final CubeRenderer renderer = new CubeRenderer(cube);
+
+    // ---------- turn animation (render thread) ----------
+    private static final long TURN_NANOS = TimeUnit.MILLISECONDS.toNanos(Integer.getInteger("cube.turnMillis", 150));
+    private static final long FRAME_BUDGET_NANOS = TimeUnit.SECONDS.toNanos(1) / 50; // slower frames shorten turns
+    private final TurnAnimation animation = new TurnAnimation(TURN_NANOS, FRAME_BUDGET_NANOS);
+    private static final int ANIMATED_BACKLOG = 3; // beyond this, older queued turns apply without animating
+    private final MoveQueue pendingMoves = new MoveQueue(1024); // from input, coalesced and played in order
+    private volatile boolean autoSolveRequested;
+    private record Solution(long version, List<Move> moves) {} // solves the snapshot of that version
+    private volatile Solution autoSolution; // searched off the render thread, queued by stepAnimation
+    private long speculatedThrough; // pendingMoves.taken() at the last hint speculation; render thread
+    private boolean isSolved = false; // render thread; input reads published.solved()
+    private volatile String solutionText; // the hint shown after pressing h, cleared by the next move
+    private volatile String distanceText; // true distance of a Hard scramble, filled in by GRADER
+    private final GLUT glut = new GLUT(); // GLUT instance for text rendering
+
+    // ---------- camera ----------
+    // replaced whole by mouse drags on the input thread, read once per frame
+    private record Camera(float angleX, float angleY, float dist) {
+        Camera turned(float dx, float dy) { return new Camera(angleX + dx, angleY + dy, dist); }
+    }
+    private volatile Camera camera = new Camera(30, 45, 5);
+    private int lastX, lastY;
+
+    // ---------- on-screen move hints ----------
+    // ---------- on-screen move hints ----------
+    private record MoveHint(String tag, Vector3f normal, float factor) {}  // factor shrinks inside hints
+
+    private static final MoveHint[] HINTS = {
+            new MoveHint("U/u", new Vector3f( 0,  1,  0), 1.0f),
+            new MoveHint("D/d", new Vector3f( 0, -1,  0), 1.0f),
+            new MoveHint("R/r", new Vector3f( 1,  0,  0), 1.0f),
+            new MoveHint("L/l", new Vector3f(-1,  0,  0), 1.0f),
+            new MoveHint("F/f", new Vector3f( 0,  0,  1), 1.0f),
+            new MoveHint("B/b", new Vector3f( 0,  0, -1), 1.0f),
+
+            // middle slices sit a little closer to the centre
+            new MoveHint("M/m", new Vector3f( 1,  0,  0), 0.60f),   // x-axis slice
+            new MoveHint("N/n", new Vector3f( 0,  1,  0), 0.60f),   // y-axis slice
+            new MoveHint("K/k", new Vector3f( 0,  0,  1), 0.60f)    // z-axis slice
+    };
+
+
+
+    private final GLU glu = new GLU();
+    private final float[] modelView = new float[16]; // read back by drawHints every frame
+
+    // ---------- window refs ----------
+    private GLWindow window;
+    private RenderLoop renderLoop; // redraws on request only
+    private volatile int winW, winH;
+
+    // ---------- scramble state ----------
+    private String difficulty;
+    private CubeState startState; // recognized from photos; replaces the scramble when set
+    private final Random random = new Random();
+
+    // ---------- session record (render thread), appended to SESSIONS when the window closes ----------
+    private static final Path SESSIONS = Path.of(System.getProperty("user.home"), ".rubiks_cube", "sessions.rcs");
+    private static final Path JOURNAL = SESSIONS.resolveSibling("journal.rcj");
+    private SolveJournal.Writer journal; // null once closed or after an I/O error
+    private boolean journalEnded;
+    private long sessionStartedAt;
+    private long sessionStartNanos;
+    private final CubeState sessionStart = new CubeState();
+    private List<Move> sessionScramble = List.of();
+    private final List<Session.TimedMove> sessionMoves = new ArrayList<>();
+
+    // Back button dimensions
+    private static final float BUTTON_X = 10;
+    private static final float BUTTON_Y = 10;
+    private static final float BUTTON_WIDTH = 80;
+    private static final float BUTTON_HEIGHT = 40;
+
+    // JavaFX Application for UI
+    public static class RubiksCubeApp extends Application {
+        private static Stage currentStage; // Track the current stage
+
+        @Override
+        public void start(Stage stage) {
+            currentStage = stage;
+            showHomeScreen();
+        }
+
+        private void showHomeScreen() {
+            Text title = new Text("Rubik’s Cube Puzzle");
+            title.setFont(Font.font("Arial", 36));
+
+            Button startButton = new Button("Start");
+            startButton.setStyle("-fx-font-size: 20; -fx-padding: 10 20;");
+            startButton.setOnAction(e -> showDifficultyScreen());
+
+            VBox homeLayout = new VBox(20, title, startButton);
+            homeLayout.setAlignment(Pos.CENTER);
+            Scene homeScene = new Scene(homeLayout, 400, 300);
+
+            currentStage.setTitle("Rubik’s Cube Puzzle");
+            currentStage.setScene(homeScene);
+            currentStage.show();
+        }
+
+        private void showDifficultyScreen() {
+            Text title = new Text("Select Difficulty");
+            title.setFont(Font.font("Arial", 28));
+
+            Button beginnerButton = new Button("Beginner");
+            beginnerButton.setStyle("-fx-font-size: 16; -fx-padding: 10 20;");
+            beginnerButton.setOnAction(e -> startGame("Beginner"));
+
+            Button intermediateButton = new Button("Intermediate");
+            intermediateButton.setStyle("-fx-font-size: 16; -fx-padding: 10 20;");
+            intermediateButton.setOnAction(e -> startGame("Intermediate"));
+
+            Button hardButton = new Button("Hard");
+            hardButton.setStyle("-fx-font-size: 16; -fx-padding: 10 20;");
+            hardButton.setOnAction(e -> startGame("Hard"));
+
+            Text photoStatus = new Text();
+            Button photosButton = new Button("From Photos...");
+            photosButton.setStyle("-fx-font-size: 16; -fx-padding: 10 20;");
+            photosButton.setOnAction(e -> loadPhotos(photosButton, photoStatus));
+
+            VBox difficultyLayout = new VBox(20, title, beginnerButton, intermediateButton, hardButton, photosButton, photoStatus);
+            difficultyLayout.setAlignment(Pos.CENTER);
+            Scene difficultyScene = new Scene(difficultyLayout, 400, 420);
+
+            currentStage.setScene(difficultyScene);
+            currentStage.show();
+        }
+
+        private void startGame(String difficulty) {
+            startGame(difficulty, null);
+        }
+
+        private void startGame(String difficulty, CubeState start) {
+            System.out.println("Starting game with difficulty: " + difficulty);
+            currentStage.hide(); // Hide the current JavaFX stage
+            instance = new RubiksCube(); // Create new instance for fresh game
+            instance.difficulty = difficulty;
+            instance.startState = start;
+            instance.initGLWindow();
+        }
+
+        /** Recognizes a folder of face photos off the FX thread and starts a game from it. */
+        private void loadPhotos(Button button, Text status) {
+            DirectoryChooser chooser = new DirectoryChooser();
+            chooser.setTitle("Folder with U, R, F, D, L and B face photos");
+            File dir = chooser.showDialog(currentStage);
+            if (dir == null) return;
+            button.setDisable(true);
+            status.setText("Reading photos...");
+            CompletableFuture.supplyAsync(() -> {
+                try {
+                    return new CubeRecognizer(ColorTable.standard()).recognize(dir.toPath());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).whenComplete((start, e) -> Platform.runLater(() -> {
+                button.setDisable(false);
+                if (e == null) {
+                    status.setText("");
+                    startGame("Photos", start);
+                } else {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    status.setText(cause instanceof UncheckedIOException u ? u.getCause().getMessage() : cause.getMessage());
+                }
+            }));
+        }
+
+        // Static method to open a new difficulty screen
+        public static void openNewDifficultyScreen() {
+            Platform.runLater(() -> {
+                // Close the previous stage if it exists
+                if (currentStage != null) {
+                    currentStage.close();
+                }
+                // Create a new stage for the difficulty screen
+                currentStage = new Stage();
+                currentStage.setTitle("Rubik’s Cube Puzzle");
+                System.out.println("Opening new difficulty screen in new stage");
+                new RubiksCubeApp().showDifficultyScreen();
+            });
+        }
+    }
+
+    // ------------------------------------------------------------------
+    public static void main(String[] args) {
+        Metrics.startDump();
+        HINT_ENGINE.thenAccept(hints -> Metrics.counters("hints", hints::toString));
+        Metrics.counters("puzzles", PUZZLES::toString);
+        SOLVER.thenAccept(s -> PUZZLES.startProducer(s, () -> loadOptimal().join()));
+        instance = new RubiksCube();
+        Application.launch(RubiksCubeApp.class, args);
+    }
+
+    private void initGLWindow() {
+        GLProfile profile = GLProfile.get(GLProfile.GL2);
+        GLCapabilities caps = new GLCapabilities(profile);
+        window = GLWindow.create(caps);
+
+        window.setTitle("Rubik’s Cube Puzzle - " + difficulty);
+        window.setSize(800, 600);
+        window.addGLEventListener(this);
+        window.addKeyListener(this);
+        window.addMouseListener(this);
+        window.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowResized(WindowEvent e) { renderLoop.requestFrame(); }
+
+            @Override
+            public void windowRepaint(WindowUpdateEvent e) { renderLoop.requestFrame(); }
+
+            @Override
+            public void windowDestroyNotify(WindowEvent e) { endGame(); }
+        });
+        renderLoop = new RenderLoop(window, 60, () -> animation.isRunning() || !pendingMoves.isEmpty());
+        Metrics.counters("input", pendingMoves::toString);
+        window.setVisible(true);
+        renderLoop.start();
+    }
+
+    // ------------------------------------------------------------------
+    // OpenGL lifecycle
+    @Override
+    public void init(GLAutoDrawable d) {
+        GL2 gl = d.getGL().getGL2();
+        gl.glClearColor(0.98f, 0.98f, 0.98f, 1.0f);
+        gl.glEnable(GL.GL_DEPTH_TEST);
+        gl.glEnable(GL2.GL_BLEND);
+        gl.glBlendFunc(GL2.GL_SRC_ALPHA, GL2.GL_ONE_MINUS_SRC_ALPHA);
+
+        // Initialize cube with standard Rubik’s Cube colors
+        int i = 0;
+        for (int x = -1; x <= 1; x++) {
+            for (int y = -1; y <= 1; y++) {
+                for (int z = -1; z <= 1; z++) {
+                    Matrix3f m = new Matrix3f();
+                    m.setIdentity();
+                    cube[i] = new Cubie(m, new Vector3f(x, y, z), x, y, z);
+                    bindStickers(cube[i++]);
+                }
+            }
+        }
+
+        renderer.init(gl);
+
+        // Apply scramble based on difficulty
+        applyScramble();
+        syncView();
+        checkSolved();
+    }
+
+    @Override
+    public void reshape(GLAutoDrawable d, int x, int y, int w, int h) {
+        winW = w;
+        winH = h;
+        GL2 gl = d.getGL().getGL2();
+        gl.glViewport(0, 0, w, h);
+        gl.glMatrixMode(GL2.GL_PROJECTION);
+        gl.glLoadIdentity();
+        glu.gluPerspective(45.0, (float) w / h, 0.1, 100);
+        gl.glMatrixMode(GL2.GL_MODELVIEW);
+    }
+
+    @Override
+    public void display(GLAutoDrawable d) {
+        long start = System.nanoTime();
+        Metrics.FrameEvent frame = new Metrics.FrameEvent();
+        frame.begin();
+        GL2 gl = d.getGL().getGL2();
+        stepAnimation(start);
+        gl.glClear(GL.GL_COLOR_BUFFER_BIT | GL.GL_DEPTH_BUFFER_BIT);
+
+        // 3D cube
+        gl.glMatrixMode(GL2.GL_MODELVIEW);
+        gl.glLoadIdentity();
+        Camera cam = camera;
+        glu.gluLookAt(cam.dist() * Math.sin(Math.toRadians(cam.angleY()))
+                        * Math.cos(Math.toRadians(cam.angleX())),
+                cam.dist() * Math.sin(Math.toRadians(cam.angleX())),
+                cam.dist() * Math.cos(Math.toRadians(cam.angleY()))
+                        * Math.cos(Math.toRadians(cam.angleX())),
+                0, 0, 0,
+                0, 1, 0);
+        gl.glScalef(0.5f, 0.5f, 0.5f);
+        renderer.draw(gl, animation.move(), animation.matrix());
+
+        // 2D overlay for UI
+        drawHints(gl);
+        gl.glMatrixMode(GL2.GL_PROJECTION);
+        gl.glPushMatrix();
+        gl.glLoadIdentity();
+        gl.glOrtho(0, winW, 0, winH, -1, 1);
+        gl.glMatrixMode(GL2.GL_MODELVIEW);
+        gl.glPushMatrix();
+        gl.glLoadIdentity();
+
+        // Disable depth testing for 2D overlay
+        gl.glDisable(GL.GL_DEPTH_TEST);
+
+        // Draw back button
+        gl.glColor3f(0.2f, 0.2f, 0.2f); // Dark gray background
+        gl.glBegin(GL2.GL_QUADS);
+        gl.glVertex2f(BUTTON_X, winH - BUTTON_Y - BUTTON_HEIGHT);
+        gl.glVertex2f(BUTTON_X + BUTTON_WIDTH, winH - BUTTON_Y - BUTTON_HEIGHT);
+        gl.glVertex2f(BUTTON_X + BUTTON_WIDTH, winH - BUTTON_Y);
+        gl.glVertex2f(BUTTON_X, winH - BUTTON_Y);
+        gl.glEnd();
+        gl.glColor3f(1, 1, 1); // White text
+        gl.glRasterPos2f(BUTTON_X + 20, winH - BUTTON_Y - 15);
+        glut.glutBitmapString(GLUT.BITMAP_HELVETICA_12, "Back");
+
+        if (solutionText != null) {
+            gl.glColor3f(0.1f, 0.1f, 0.1f);
+            gl.glRasterPos2f(BUTTON_X, BUTTON_Y);
+            glut.glutBitmapString(GLUT.BITMAP_HELVETICA_18, solutionText);
+        }
+        String distance = distanceText;
+        if (distance != null) {
+            gl.glColor3f(0.1f, 0.1f, 0.1f);
+            gl.glRasterPos2f(BUTTON_X, winH - BUTTON_Y - BUTTON_HEIGHT - 25);
+            glut.glutBitmapString(GLUT.BITMAP_HELVETICA_18, distance);
+        }
+
+        // Draw SOLVED!!! message if solved
+        if (isSolved) {
+            gl.glColor4f(0, 0, 0, 0.5f); // Semi-transparent black background
+            gl.glBegin(GL2.GL_QUADS);
+            gl.glVertex2f(winW/4, winH/4);
+            gl.glVertex2f(winW*3/4, winH/4);
+            gl.glVertex2f(winW*3/4, winH*3/4);
+            gl.glVertex2f(winW/4, winH*3/4);
+            gl.glEnd();
+            gl.glColor3f(1, 0, 0); // Red text
+            gl.glRasterPos2f(winW/2 - 80, winH/2); // Adjusted for better centering
+            glut.glutBitmapString(GLUT.BITMAP_HELVETICA_18, "SOLVED!!!");
+        }
+
+        // Re-enable depth testing for 3D rendering
+        gl.glEnable(GL.GL_DEPTH_TEST);
+
+        gl.glPopMatrix();
+        gl.glMatrixMode(GL2.GL_PROJECTION);
+        gl.glPopMatrix();
+        gl.glMatrixMode(GL2.GL_MODELVIEW);
+
+        Metrics.FRAME_TIME.record(System.nanoTime() - start);
+        if (frame.shouldCommit()) {
+            frame.animating = animation.isRunning();
+            frame.commit();
+        }
+    }
+
+    @Override
+    public void dispose(GLAutoDrawable d) {
+        renderer.dispose(d.getGL().getGL2());
+        saveSession();
+        endJournal(false);
+        journal(SolveJournal.Writer::close);
+        journal = null;
+    }
+
+    // ------------------------------------------------------------------
+    // Mouse interaction (for camera rotation and button clicks)
+    @Override
+    public void mousePressed(MouseEvent e) {
+        lastX = e.getX();
+        lastY = winH - e.getY();
+    }
+
+    @Override
+    public void mouseDragged(MouseEvent e) {
+        int mx = e.getX();
+        int my = winH - e.getY();
+        int dx = mx - lastX;
+        int dy = my - lastY;
+        camera = camera.turned(-dy * 0.5f, dx * 0.5f);
+        lastX = mx;
+        lastY = my;
+        renderLoop.requestFrame();
+    }
+
+    @Override
+    public void mouseWheelMoved(MouseEvent mouseEvent) {
+
+    }
+
+    @Override
+    public void mouseClicked(MouseEvent e) {
+        int x = e.getX();
+        int y = winH - e.getY(); // Flip Y-coordinate to match OpenGL
+        // Check if click is within back button bounds
+        if (x >= BUTTON_X && x <= BUTTON_X + BUTTON_WIDTH &&
+                y >= winH - BUTTON_Y - BUTTON_HEIGHT && y <= winH - BUTTON_Y) {
+            System.out.println("Back button clicked, opening new difficulty screen");
+            endGame();
+            window.destroy(); // Close JOGL window
+            RubiksCubeApp.openNewDifficultyScreen(); // Open new difficulty screen
+        }
+    }
+
+    // Other MouseListener methods
+    @Override
+    public void mouseReleased(MouseEvent e) {}
+    @Override
+    public void mouseMoved(MouseEvent e) {}
+    @Override
+    public void mouseEntered(MouseEvent e) {}
+    @Override
+    public void mouseExited(MouseEvent e) {}
+
+    public void mouseWheelMoved(MouseEvent e, boolean[] wheelRotation) {}
+
+    // ------------------------------------------------------------------
+    // Keyboard controls
+    @Override
+    public void keyPressed(KeyEvent e) {
+        if (published.solved()) return; // No moves after solved
+
+        switch (e.getKeyChar()) {
+            case 'h' -> { showHint(); renderLoop.requestFrame(); return; }
+            case 'a' -> { autoSolveRequested = true; renderLoop.requestFrame(); return; }
+        }
+
+        Move move = keyMove(e.getKeyChar());
+        if (move == null) return;
+
+        pendingMoves.offer(move);
+        renderLoop.requestFrame();
+    }
+
+    @Override
+    public void keyReleased(KeyEvent e) {}
+
+    public void keyTyped(KeyEvent e) {}
+
+    /**
+     * Maps a key to its move. Upper case is the standard move; lower case keeps the original
+     * direction of each key, which is the inverse for faces and S and the standard move for M and E.
+     */
+    private static Move keyMove(char key) {
+        return switch (key) {
+            case 'U' -> Move.U;       case 'u' -> Move.U_PRIME;
+            case 'D' -> Move.D;       case 'd' -> Move.D_PRIME;
+            case 'R' -> Move.R;       case 'r' -> Move.R_PRIME;
+            case 'L' -> Move.L;       case 'l' -> Move.L_PRIME;
+            case 'F' -> Move.F;       case 'f' -> Move.F_PRIME;
+            case 'B' -> Move.B;       case 'b' -> Move.B_PRIME;
+            case 'm' -> Move.M;       case 'M' -> Move.M_PRIME;
+            case 'n' -> Move.E;       case 'N' -> Move.E_PRIME;
+            case 'K' -> Move.S;       case 'k' -> Move.S_PRIME;
+            default -> null;
+        };
+    }
+
+    // ------------------------------------------------------------------
+    // Cube view (the cubies stay put, only the state turns)
+    /** Links each outward face of a cubie to its facelet; hidden faces stay dark. */
+    private void bindStickers(Cubie c) {
+        for (Face f : c.getFaces()) {
+            Vector3f n = f.getNormal();
+            int face = CubeState.faceOf(Math.round(n.x), Math.round(n.y), Math.round(n.z));
+            int idx = CubeState.faceletAt(c.getX(), c.getY(), c.getZ(), face);
+            if (idx >= 0) stickers[idx] = f;
+            else f.setColor(CubeColor.UNKNOWN.rgb());
+        }
+    }
+
+    /** Copies the state's sticker colors onto the cubie view. */
+    private void syncView() {
+        for (int i = 0; i < CubeState.FACELETS; i++) {
+            stickers[i].setColor(state.color(i).rgb());
+        }
+        renderer.invalidate();
+    }
+
+    // ------------------------------------------------------------------
+    // Scramble generation
+    private void applyScramble() {
+        if (startState != null) {
+            state.copyFrom(startState);
+            beginSession(List.of());
+            return;
+        }
+        long start = System.nanoTime();
+        Metrics.ScrambleEvent event = new Metrics.ScrambleEvent();
+        event.begin();
+        PuzzlePool.Tier tier = PuzzlePool.Tier.of(difficulty);
+        PuzzlePool.Puzzle puzzle = tier == null ? null : PUZZLES.take(tier);
+        List<Move> scramble;
+        if (puzzle != null) {
+            scramble = puzzle.scramble();
+            distanceText = (tier.optimal ? "Optimal: " : "Solvable in ") + puzzle.length() + " moves";
+        } else {
+            // the pool is still filling (first run): random moves cost nothing on the GL thread,
+            // and uniformly random Hard states are left to the pool's producer
+            int moveCount = switch (difficulty) {
+                case "Beginner" -> 2;    // Very easy: 2 moves
+                case "Intermediate" -> 15; // Slightly harder: 15 moves
+                case "Hard" -> 25;       // Fully scrambled: 25 moves
+                default -> 15;
+            };
+            scramble = ScrambleGenerator.randomMoves(random, moveCount);
+        }
+        Algorithm.of(scramble).applyTo(state);
+        Metrics.SCRAMBLE.record(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.difficulty = difficulty;
+            event.moves = scramble.size();
+            event.commit();
+        }
+        beginSession(scramble);
+        if (puzzle == null && difficulty.equals("Hard")) gradeScramble();
+    }
+
+    /** Starts recording the session from the current state and warms the hint for it. */
+    private void beginSession(List<Move> scramble) {
+        sessionScramble = scramble;
+        sessionStart.copyFrom(state);
+        sessionStartedAt = System.currentTimeMillis();
+        sessionStartNanos = System.nanoTime();
+        openJournal();
+        CubeState scrambled = new CubeState();
+        scrambled.copyFrom(state);
+        HINT_ENGINE.thenAccept(hints -> hints.speculate(scrambled));
+    }
+
+    /** Labels the scramble with its optimal distance once the background search finishes. */
+    private void gradeScramble() {
+        CubeState scrambled = new CubeState();
+        scrambled.copyFrom(state);
+        distanceText = "Optimal: computing...";
+        CompletableFuture.supplyAsync(() -> optimalDistance(scrambled), GRADER)
+                .whenComplete((d, e) -> {
+                    distanceText = e == null ? "Optimal: " + d + " moves" : "Optimal: unavailable";
+                    renderLoop.requestFrame();
+                });
+    }
+
+    private static int optimalDistance(CubeState scrambled) {
+        if (optimalSolver == null) {
+            // leave a core for rendering
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            optimalSolver = loadOptimal().join().withThreads(threads);
+        }
+        return optimalSolver.distance(scrambled);
+    }
+
+    /**
+     * Starts loading the optimal solver on first call and returns the shared load. It runs
+     * on the common pool rather than GRADER, whose own tasks wait for it.
+     */
+    private static synchronized CompletableFuture<OptimalSolver> loadOptimal() {
+        if (optimalLoad == null) {
+            optimalLoad = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return OptimalSolver.load();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return optimalLoad;
+    }
+
+    // ------------------------------------------------------------------
+    // Solver
+    /**
+     * Shows the next move for the published snapshot. Runs on the input thread and never
+     * waits: a cached hint shows at once, a searched one when the search ends, unless the cube
+     * has moved on by then.
+     */
+    private void showHint() {
+        HintEngine hints = HINT_ENGINE.getNow(null);
+        if (hints == null) {
+            solutionText = HINT_ENGINE.isCompletedExceptionally() ? "Solver unavailable" : "Solver is still loading...";
+            return;
+        }
+        Snapshot asked = published;
+        long start = System.nanoTime();
+        hints.hint(asked.state()).whenComplete((hint, e) -> {
+            Metrics.HINT_LATENCY.record(System.nanoTime() - start);
+            if (e == null && hint.searching()) {
+                // the search outlasted the hint budget; show its result when it ends
+                showHintText(asked, "Hint: searching...");
+                hints.searched(asked.state()).whenComplete((found, e2) -> showHintText(asked, hintText(found, e2)));
+            } else {
+                showHintText(asked, hintText(hint, e));
+            }
+        });
+    }
+
+    private static String hintText(HintEngine.Hint hint, Throwable e) {
+        return e != null ? "Hint unavailable"
+                : hint.move() == null ? "Already solved"
+                : "Hint: " + hint.move() + " (" + hint.remaining() + " moves to solved)";
+    }
+
+    /** Shows {@code text} unless the cube has moved on from the snapshot it was asked for. */
+    private void showHintText(Snapshot asked, String text) {
+        if (published.version() != asked.version()) return;
+        solutionText = text;
+        // a turn committed since the check clears the text; make sure a stale hint goes too
+        if (published.version() != asked.version()) solutionText = null;
+        renderLoop.requestFrame();
+    }
+
+    /**
+     * Starts the hint search for where the cube ends up once the running turn and every queued
+     * one have played, before the player asks. Render thread, so it sees the whole backlog
+     * rather than the last published snapshot.
+     */
+    private void speculate(List<Move> backlog) {
+        HintEngine hints = HINT_ENGINE.getNow(null);
+        if (hints == null) return;
+        CubeState next = new CubeState();
+        next.copyFrom(state);
+        if (animation.isRunning()) next.apply(animation.move());
+        for (Move m : backlog) next.apply(m);
+        hints.speculate(next);
+    }
+
+    /**
+     * Searches for a solution of the published snapshot on a background thread, so the frame
+     * never waits for it. {@link #stepAnimation} queues it once found, unless the cube has moved
+     * on by then, and it animates like typed moves.
+     */
+    private void autoSolve() {
+        if (!SOLVER.isDone()) {
+            solutionText = "Solver is still loading...";
+            return;
+        }
+        if (SOLVER.isCompletedExceptionally()) {
+            solutionText = "Solver unavailable";
+            return;
+        }
+        Snapshot asked = published;
+        solutionText = "Solving...";
+        CompletableFuture.supplyAsync(() -> SOLVER.join().solve(asked.state())).whenComplete((moves, e) -> {
+            if (e != null) solutionText = "Solver unavailable";
+            else autoSolution = new Solution(asked.version(), moves);
+            renderLoop.requestFrame();
+        });
+    }
+
+    // ------------------------------------------------------------------
+    // Turn animation (render thread)
+    /**
+     * Finishes or advances the running turn and starts the next queued one. When input runs
+     * ahead of the animation, the oldest queued turns are applied at once so the cube never
+     * lags more than a few turns behind the keys.
+     */
+    private void stepAnimation(long now) {
+        Move done = animation.advance(now);
+        if (done != null) commit(done);
+        List<Move> backlog = pendingMoves.drain();
+        if (backlog.size() > ANIMATED_BACKLOG) {
+            Move running = animation.finish();
+            if (running != null) commit(running);
+            while (backlog.size() > ANIMATED_BACKLOG && !isSolved) commit(backlog.remove(0));
+        }
+        if (pendingMoves.taken() != speculatedThrough && !isSolved) {
+            speculatedThrough = pendingMoves.taken();
+            speculate(backlog);
+        }
+        if (isSolved || animation.isRunning()) return;
+        if (autoSolveRequested && pendingMoves.isEmpty()) {
+            autoSolveRequested = false;
+            autoSolve();
+        }
+        Solution found = autoSolution;
+        if (found != null && pendingMoves.isEmpty()) {
+            autoSolution = null;
+            // a turn committed during the search leaves the solution for an old state
+            if (found.version() == published.version()) {
+                for (Move m : found.moves()) pendingMoves.offer(m);
+                backlog = pendingMoves.drain();
+            }
+        }
+        if (!backlog.isEmpty()) animation.start(backlog.remove(0), now);
+    }
+
+    // ------------------------------------------------------------------
+    // Solve journal (render thread): every committed move, timed, appended to JOURNAL
+    private interface JournalWrite {
+        void write(SolveJournal.Writer w) throws IOException;
+    }
+
+    private void openJournal() {
+        try {
+            Files.createDirectories(JOURNAL.getParent());
+            journal = SolveJournal.append(JOURNAL);
+            journal.start(sessionStartedAt, sessionStart);
+        } catch (IOException e) {
+            System.err.println("Solve journal disabled: " + e.getMessage());
+            journal = null;
+        }
+    }
+
+    /** Writes the game's end once, then flushes so a finished game is on disk. */
+    private void endJournal(boolean solved) {
+        if (journalEnded) return;
+        journalEnded = true;
+        long atMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sessionStartNanos);
+        journal(w -> {
+            w.end(sessionStartedAt + atMillis, solved);
+            w.flush();
+        });
+    }
+
+    /** Runs one journal write; the first I/O error turns journaling off for this game. */
+    private void journal(JournalWrite write) {
+        if (journal == null) return;
+        try {
+            write.write(journal);
+        } catch (IOException e) {
+            System.err.println("Solve journal disabled: " + e.getMessage());
+            try {
+                journal.close();
+            } catch (IOException ignored) {
+                // already failing
+            }
+            journal = null;
+        }
+    }
+
+    /** Archives the game just played; a failure costs the record, never the game. */
+    private void saveSession() {
+        Session session = new Session(sessionStartedAt, sessionStart, sessionScramble, sessionMoves);
+        try {
+            Files.createDirectories(SESSIONS.getParent());
+            try (FileChannel out = FileChannel.open(SESSIONS, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                session.write(out);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not save session to " + SESSIONS + ": " + e.getMessage());
+        }
+    }
+
+    private void endGame() {
+        renderLoop.stop();
+        try {
+            PUZZLES.save();
+        } catch (IOException e) {
+            System.err.println("Puzzle pool not saved: " + e.getMessage());
+        }
+    }
+
+    /** Applies a finished turn to the model, once, and recolors the view. */
+    private void commit(Move move) {
+        state.apply(move);
+        long atMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sessionStartNanos);
+        sessionMoves.add(new Session.TimedMove(move, atMillis));
+        journal(w -> w.move(move, sessionStartedAt + atMillis));
+        solutionText = null;
+        syncView();
+        checkSolved();
+        if (isSolved) {
+            pendingMoves.clear(); // No moves after solved
+            endJournal(true);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Solve detection
+    private void checkSolved() {
+        long start = System.nanoTime();
+        Metrics.SolveCheckEvent event = new Metrics.SolveCheckEvent();
+        event.begin();
+        isSolved = state.isSolved();
+        Metrics.SOLVE_CHECK.record(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.solved = isSolved;
+            event.commit();
+        }
+        publish();
+    }
+
+    /** Hands a copy of the model to other threads; render thread only. */
+    private void publish() {
+        CubeState copy = new CubeState();
+        copy.copyFrom(state);
+        published = new Snapshot(published.version() + 1, copy, isSolved);
+    }
+
+    /** Renders key labels that track the cube orientation */
+    private void drawHints(GL2 gl) {
+        // fetch model-view so we know how the user tilted the cube
+        float[] mv = modelView;
+        gl.glGetFloatv(GL2.GL_MODELVIEW_MATRIX, mv, 0);
+
+        float cx = winW * 0.5f;
+        float cy = winH * 0.5f;
+        float radius = Math.min(winW, winH) * 0.35f;   // distance from centre
+
+        // switch to simple 2-D drawing
+        gl.glMatrixMode(GL2.GL_PROJECTION);
+        gl.glPushMatrix();
+        gl.glLoadIdentity();
+        gl.glOrtho(0, winW, 0, winH, -1, 1);
+        gl.glMatrixMode(GL2.GL_MODELVIEW);
+        gl.glPushMatrix();
+        gl.glLoadIdentity();
+        gl.glDisable(GL.GL_DEPTH_TEST);
+
+        gl.glColor3f(0.1f, 0.1f, 0.1f);
+        for (MoveHint h : HINTS) {
+            // project face normal into screen plane; camera right and up are the first two rows
+            Vector3f n = h.normal();
+            float dx = n.x * mv[0] + n.y * mv[4] + n.z * mv[8];
+            float dy = n.x * mv[1] + n.y * mv[5] + n.z * mv[9];
+
+            float len = (float) Math.sqrt(dx*dx + dy*dy);
+            if (len < 0.01f) continue;      // face is edge-on
+
+            dx /= len;  dy /= len;
+            float sx = cx + dx * radius * h.factor();
+            float sy = cy + dy * radius * h.factor();
+
+
+            gl.glRasterPos2f(sx - 12, sy - 6);
+            glut.glutBitmapString(GLUT.BITMAP_HELVETICA_12, h.tag());
+        }
+
+        // restore state
+        gl.glEnable(GL.GL_DEPTH_TEST);
+        gl.glPopMatrix();
+        gl.glMatrixMode(GL2.GL_PROJECTION);
+        gl.glPopMatrix();
+        gl.glMatrixMode(GL2.GL_MODELVIEW);
+    }
+
+}
@@ -0,0 +1,81 @@
+package org.example;
+
+/**
+ * Animates one move at a time by rotating its layers from 0 to the full turn angle. The layer
+ * rotation is kept as a column-major matrix ready for {@code glMultMatrixf}; {@link #advance}
+ * rewrites it in place, so a running animation allocates nothing.
+ *
+ * <p>Each frame is timed against a frame budget. When frames arrive slower than the budget,
+ * the animation runs proportionally faster, so a slow machine shows fewer in-between frames
+ * instead of letting turns pile up behind the display. Used from the render thread only.
+ */
+final class TurnAnimation {
+
+    private final long durationNanos;
+    private final long frameBudgetNanos;
+    private final float[] matrix = new float[16];
+
+    private Move move;
+    private float progress; // 0..1 of the current move
+    private long lastFrame;
+
+    TurnAnimation(long durationNanos, long frameBudgetNanos) {
+        this.durationNanos = durationNanos;
+        this.frameBudgetNanos = frameBudgetNanos;
+        matrix[15] = 1;
+    }
+
+    /** The move being animated, or null when idle. */
+    Move move() { return move; }
+
+    boolean isRunning() { return move != null; }
+
+    /** Layer rotation for the current frame. */
+    float[] matrix() { return matrix; }
+
+    /** Begins animating {@code next}; the caller commits any move still running first. */
+    void start(Move next, long now) {
+        move = next;
+        progress = 0;
+        lastFrame = now;
+        rotate(0);
+    }
+
+    /**
+     * Moves the animation on to time {@code now}. Returns the finished move once it reaches
+     * the full angle, which the caller then applies to the model; returns null before that.
+     */
+    Move advance(long now) {
+        if (move == null) return null;
+        long frame = now - lastFrame;
+        lastFrame = now;
+        float speedUp = frame > frameBudgetNanos ? (float) frame / frameBudgetNanos : 1f;
+        progress += speedUp * frame / durationNanos;
+        if (progress >= 1f) return finish();
+        float t = progress * progress * (3 - 2 * progress); // ease in and out
+        rotate(t * move.quarters() * 90f);
+        return null;
+    }
+
+    /** Ends the animation at once and returns the move, or null when idle. */
+    Move finish() {
+        Move done = move;
+        move = null;
+        rotate(0);
+        return done;
+    }
+
+    private void rotate(float degrees) {
+        double a = Math.toRadians(degrees);
+        float c = (float) Math.cos(a), s = (float) Math.sin(a);
+        for (int i = 0; i < 11; i++) matrix[i] = 0;
+        int axis = move == null ? 0 : move.axis();
+        int u = (axis + 1) % 3, v = (axis + 2) % 3;
+        // counter-clockwise about the axis: u turns towards v
+        matrix[axis * 4 + axis] = 1;
+        matrix[u * 4 + u] = c;
+        matrix[u * 4 + v] = s;
+        matrix[v * 4 + u] = -s;
+        matrix[v * 4 + v] = c;
+    }
+}
@@ -0,0 +1,36 @@
+package org.example;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Turn latency of the N x N model: inner layers touch 4N stickers, outer layers add N^2. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BigCubeBenchmark {
+
+    @Param({"3", "10", "100", "1000"})
+    int size;
+
+    private BigCube cube;
+
+    @Setup
+    public void setUp() {
+        cube = new BigCube(size);
+    }
+
+    @Benchmark
+    public BigCube innerTurn() {
+        cube.turn(CubeState.X, size / 2, 1);
+        return cube;
+    }
+
+    @Benchmark
+    public BigCube outerTurn() {
+        cube.turn(CubeState.Y, size - 1, 1);
+        return cube;
+    }
+}
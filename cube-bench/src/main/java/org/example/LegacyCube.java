@@ -0,0 +1,193 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.vecmath.Vector3f;
+
+/**
+ * The object model the game used before {@link CubeState}, kept only as a benchmark baseline:
+ * 27 cubies with grid positions and six stickers each, normals rotated with trigonometry on
+ * every turn, string-driven scrambles, and a solved check that finds stickers by normal and
+ * matches colors by RGB. The per-face console logging of the old check is left out.
+ */
+final class LegacyCube {
+
+    private static final class Sticker {
+        Vector3f normal;
+        final float[] color;
+
+        Sticker(Vector3f normal, float[] color) {
+            this.normal = normal;
+            this.color = color;
+        }
+    }
+
+    private static final class Piece {
+        int x, y, z;
+        final Sticker[] stickers = {
+                new Sticker(new Vector3f(0, 0, -1), new float[]{0f, 0f, 1f}),
+                new Sticker(new Vector3f(0, 0, 1), new float[]{0f, 1f, 0f}),
+                new Sticker(new Vector3f(0, 1, 0), new float[]{1f, 1f, 1f}),
+                new Sticker(new Vector3f(0, -1, 0), new float[]{1f, 1f, 0f}),
+                new Sticker(new Vector3f(1, 0, 0), new float[]{1f, 0.6f, 0f}),
+                new Sticker(new Vector3f(-1, 0, 0), new float[]{1f, 0f, 0f})
+        };
+
+        Piece(int x, int y, int z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+
+    private static final String[] SCRAMBLE_MOVES = {"U", "U'", "D", "D'", "R", "R'", "L", "L'", "F", "F'", "B", "B'"};
+
+    private final Piece[] pieces = new Piece[27];
+
+    LegacyCube() {
+        int i = 0;
+        for (int x = -1; x <= 1; x++) {
+            for (int y = -1; y <= 1; y++) {
+                for (int z = -1; z <= 1; z++) pieces[i++] = new Piece(x, y, z);
+            }
+        }
+    }
+
+    /** Outer face moves only, dispatched the way the old key handler did. */
+    void apply(Move move) {
+        int idx = move.layers() == 0b100 ? 1 : -1;
+        int dir = move.quarters() == 2 ? 1 : -move.quarters();
+        for (int q = move.quarters() == 2 ? 2 : 1; q > 0; q--) {
+            switch (move.axis()) {
+                case CubeState.X -> turnX(idx, dir);
+                case CubeState.Y -> turnY(idx, dir);
+                default -> turnZ(idx, dir);
+            }
+        }
+    }
+
+    void apply(String notation) {
+        switch (notation) {
+            case "U" -> turnY(1, 1);
+            case "U'" -> turnY(1, -1);
+            case "D" -> turnY(-1, -1);
+            case "D'" -> turnY(-1, 1);
+            case "R" -> turnX(1, 1);
+            case "R'" -> turnX(1, -1);
+            case "L" -> turnX(-1, -1);
+            case "L'" -> turnX(-1, 1);
+            case "F" -> turnZ(1, 1);
+            case "F'" -> turnZ(1, -1);
+            case "B" -> turnZ(-1, -1);
+            case "B'" -> turnZ(-1, 1);
+            default -> throw new IllegalArgumentException(notation);
+        }
+    }
+
+    /** The old scramble loop: random strings, rejected by comparing face letters. */
+    static List<String> scramble(Random random, int moveCount) {
+        List<String> scramble = new ArrayList<>();
+        String lastFace = "";
+        String secondLastFace = "";
+        for (int i = 0; i < moveCount; i++) {
+            String move;
+            String face;
+            do {
+                move = SCRAMBLE_MOVES[random.nextInt(SCRAMBLE_MOVES.length)];
+                face = move.substring(0, 1);
+            } while (face.equals(lastFace) || (i > 1 && face.equals(secondLastFace)));
+            scramble.add(move);
+            secondLastFace = lastFace;
+            lastFace = face;
+        }
+        return scramble;
+    }
+
+    boolean isSolved() {
+        record FaceCheck(int coord, char axis, Vector3f normal, CubeColor expectedColor) {}
+        FaceCheck[] faces = {
+                new FaceCheck(1, 'y', new Vector3f(0, 1, 0), CubeColor.WHITE),
+                new FaceCheck(-1, 'y', new Vector3f(0, -1, 0), CubeColor.YELLOW),
+                new FaceCheck(1, 'x', new Vector3f(1, 0, 0), CubeColor.ORANGE),
+                new FaceCheck(-1, 'x', new Vector3f(-1, 0, 0), CubeColor.RED),
+                new FaceCheck(1, 'z', new Vector3f(0, 0, 1), CubeColor.GREEN),
+                new FaceCheck(-1, 'z', new Vector3f(0, 0, -1), CubeColor.BLUE)
+        };
+        for (FaceCheck face : faces) {
+            List<CubeColor> colors = new ArrayList<>();
+            int matching = 0;
+            for (Piece p : pieces) {
+                boolean onFace = switch (face.axis) {
+                    case 'x' -> p.x == face.coord;
+                    case 'y' -> p.y == face.coord;
+                    default -> p.z == face.coord;
+                };
+                if (!onFace) continue;
+                for (Sticker s : p.stickers) {
+                    Vector3f n = new Vector3f(s.normal);
+                    if (Math.abs(n.x - face.normal.x) < 0.01 && Math.abs(n.y - face.normal.y) < 0.01
+                            && Math.abs(n.z - face.normal.z) < 0.01) {
+                        CubeColor color = colorFromRgb(s.color);
+                        colors.add(color);
+                        if (color == face.expectedColor) matching++;
+                        break;
+                    }
+                }
+            }
+            if (matching != 9) return false;
+        }
+        return true;
+    }
+
+    static CubeColor colorFromRgb(float[] rgb) {
+        for (CubeColor color : CubeColor.values()) {
+            float[] c = color.rgb();
+            if (Math.abs(c[0] - rgb[0]) < 0.01 && Math.abs(c[1] - rgb[1]) < 0.01 && Math.abs(c[2] - rgb[2]) < 0.01) {
+                return color;
+            }
+        }
+        return CubeColor.UNKNOWN;
+    }
+
+    private void turnX(int idx, int dir) {
+        for (Piece p : pieces) {
+            if (p.x != idx) continue;
+            int y = p.y, z = p.z;
+            if (dir == 1) { p.y = -z; p.z = y; } else { p.y = z; p.z = -y; }
+            rotate(p, dir, 'x');
+        }
+    }
+
+    private void turnY(int idx, int dir) {
+        for (Piece p : pieces) {
+            if (p.y != idx) continue;
+            int x = p.x, z = p.z;
+            if (dir == 1) { p.x = z; p.z = -x; } else { p.x = -z; p.z = x; }
+            rotate(p, dir, 'y');
+        }
+    }
+
+    private void turnZ(int idx, int dir) {
+        for (Piece p : pieces) {
+            if (p.z != idx) continue;
+            int x = p.x, y = p.y;
+            if (dir == 1) { p.x = -y; p.y = x; } else { p.x = y; p.y = -x; }
+            rotate(p, dir, 'z');
+        }
+    }
+
+    private static void rotate(Piece p, int dir, char axis) {
+        float a = dir * (float) Math.PI / 2;
+        float c = (float) Math.cos(a), s = (float) Math.sin(a);
+        for (Sticker st : p.stickers) {
+            Vector3f v = st.normal, r = new Vector3f(v);
+            switch (axis) {
+                case 'z' -> { r.x = Math.round(v.x * c - v.y * s); r.y = Math.round(v.x * s + v.y * c); }
+                case 'y' -> { r.x = Math.round(v.x * c - v.z * s); r.z = Math.round(v.x * s + v.z * c); }
+                default -> { r.y = Math.round(v.y * c - v.z * s); r.z = Math.round(v.y * s + v.z * c); }
+            }
+            st.normal = r;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.example;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Single moves and long replays on the packed model against the old object model, and the same
+ * replay compiled into one {@link Algorithm}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveBenchmark {
+
+    @Param("1000")
+    int replayLength;
+
+    private CubeState state;
+    private LegacyCube legacy;
+    private Move[] sequence;
+    private Algorithm compiled;
+
+    @Setup
+    public void setUp() {
+        state = new CubeState();
+        legacy = new LegacyCube();
+        List<Move> moves = ScrambleGenerator.randomMoves(new SplittableRandom(1), replayLength);
+        sequence = moves.toArray(new Move[0]);
+        compiled = Algorithm.of(moves);
+    }
+
+    @Benchmark
+    public CubeState packedSingleMove() {
+        state.apply(Move.R);
+        return state;
+    }
+
+    @Benchmark
+    public CubeState packedSliceMove() {
+        state.apply(Move.M);
+        return state;
+    }
+
+    @Benchmark
+    public CubeState packedReplay() {
+        for (Move m : sequence) state.apply(m);
+        return state;
+    }
+
+    @Benchmark
+    public CubeState compiledReplay() {
+        compiled.applyTo(state);
+        return state;
+    }
+
+    @Benchmark
+    public LegacyCube legacySingleMove() {
+        legacy.apply(Move.R);
+        return legacy;
+    }
+
+    @Benchmark
+    public LegacyCube legacyReplay() {
+        for (Move m : sequence) legacy.apply(m);
+        return legacy;
+    }
+}
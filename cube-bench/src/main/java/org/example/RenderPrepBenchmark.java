@@ -0,0 +1,57 @@
+package org.example;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import javax.vecmath.Matrix3f;
+import javax.vecmath.Vector3f;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * CPU work to prepare a frame: copying state colors onto the view faces against the old RGB
+ * color lookup. {@link Cubie#show} itself issues GL calls and needs a live context, which a
+ * headless benchmark does not have.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RenderPrepBenchmark {
+
+    private final Face[] stickers = new Face[CubeState.FACELETS];
+    private final CubeState state = new CubeState();
+
+    @Setup
+    public void setUp() {
+        for (int x = -1; x <= 1; x++) {
+            for (int y = -1; y <= 1; y++) {
+                for (int z = -1; z <= 1; z++) {
+                    Matrix3f m = new Matrix3f();
+                    m.setIdentity();
+                    Cubie c = new Cubie(m, new Vector3f(x, y, z), x, y, z);
+                    for (Face f : c.getFaces()) {
+                        Vector3f n = f.getNormal();
+                        int face = CubeState.faceOf(Math.round(n.x), Math.round(n.y), Math.round(n.z));
+                        int idx = CubeState.faceletAt(x, y, z, face);
+                        if (idx >= 0) stickers[idx] = f;
+                    }
+                }
+            }
+        }
+        for (Move m : ScrambleGenerator.randomMoves(new SplittableRandom(5), 25)) state.apply(m);
+    }
+
+    @Benchmark
+    public Face[] syncView() {
+        for (int i = 0; i < CubeState.FACELETS; i++) stickers[i].setColor(state.color(i).rgb());
+        return stickers;
+    }
+
+    @Benchmark
+    public int legacyColorLookup() {
+        int h = 0;
+        for (Face f : stickers) h += LegacyCube.colorFromRgb(f.getColor()).ordinal();
+        return h;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Scramble generation and application. Random states go through the two-phase solver, whose
+ * tables are mapped from the user's cache (and built there on the first run).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScrambleBenchmark {
+
+    private final SplittableRandom rng = new SplittableRandom(7);
+    private final Random random = new Random(7);
+    private ScrambleGenerator randomState;
+
+    @Setup
+    public void setUp() throws IOException {
+        randomState = ScrambleGenerator.randomState(TwoPhaseSolver.load());
+    }
+
+    @Benchmark
+    public CubeState randomMoves25() {
+        CubeState state = new CubeState();
+        for (Move m : ScrambleGenerator.randomMoves(rng, 25)) state.apply(m);
+        return state;
+    }
+
+    @Benchmark
+    public List<Move> randomState() {
+        return randomState.next(rng);
+    }
+
+    @Benchmark
+    public LegacyCube legacyStringScramble25() {
+        LegacyCube cube = new LegacyCube();
+        for (String m : LegacyCube.scramble(random, 25)) cube.apply(m);
+        return cube;
+    }
+}
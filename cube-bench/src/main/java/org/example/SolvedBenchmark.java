@@ -0,0 +1,54 @@
+package org.example;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Solved-check latency. The packed check reads a counter the moves keep current, so the
+ * closest comparison to the old full scan is a move followed by the check.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolvedBenchmark {
+
+    private CubeState scrambled;
+    private final CubeState solved = new CubeState();
+    private final LegacyCube legacySolved = new LegacyCube();
+    private LegacyCube legacyScrambled;
+
+    @Setup
+    public void setUp() {
+        scrambled = new CubeState();
+        legacyScrambled = new LegacyCube();
+        for (Move m : ScrambleGenerator.randomMoves(new SplittableRandom(3), 25)) {
+            scrambled.apply(m);
+            legacyScrambled.apply(m);
+        }
+    }
+
+    @Benchmark
+    public boolean packedSolved() {
+        return solved.isSolved();
+    }
+
+    @Benchmark
+    public boolean packedMoveThenCheck() {
+        scrambled.apply(Move.U);
+        return scrambled.isSolved();
+    }
+
+    @Benchmark
+    public boolean legacySolved() {
+        return legacySolved.isSolved();
+    }
+
+    @Benchmark
+    public boolean legacyScrambled() {
+        return legacyScrambled.isSolved();
+    }
+}
@@ -0,0 +1,164 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A compiled move sequence. Parsing accepts standard notation with or without spaces, such as
+ * {@code "R U R' U'"}, {@code "RUR'U'"} or {@code "(R U R' U')3 x2"}. The moves are simplified
+ * (turns of the same layers merge or cancel, also across commuting turns on the same axis,
+ * as in {@code R L R'}) and composed into a single facelet permutation, so applying the
+ * sequence to a state is one pass however long it is.
+ *
+ * <p>Instances are immutable and can be shared between threads.
+ */
+public final class Algorithm {
+
+    // longest sequence parse will expand repeated groups to
+    private static final int MAX_PARSED = 100_000;
+
+    private static final String LETTERS = "URFDLBMESxyz";
+    private static final Move[] BASE = {
+            Move.U, Move.R, Move.F, Move.D, Move.L, Move.B,
+            Move.M, Move.E, Move.S, Move.X, Move.Y, Move.Z
+    };
+
+    private final List<Move> moves;
+    private final byte[] permutation;
+
+    private Algorithm(List<Move> moves) {
+        this.moves = Collections.unmodifiableList(moves);
+        byte[] perm = new byte[CubeState.FACELETS];
+        for (int i = 0; i < perm.length; i++) perm[i] = (byte) i;
+        for (Move m : moves) perm = CubeState.compose(perm, m.permutation());
+        this.permutation = perm;
+    }
+
+    public static Algorithm parse(String notation) {
+        Parser p = new Parser(notation);
+        List<Move> moves = p.sequence();
+        if (p.pos < notation.length()) throw p.error("unexpected ')'");
+        return of(moves);
+    }
+
+    public static Algorithm of(List<Move> moves) {
+        return new Algorithm(simplify(moves));
+    }
+
+    public static Algorithm of(Move... moves) {
+        return of(List.of(moves));
+    }
+
+    /**
+     * Merges and cancels turns of the same layers that are adjacent once turns about the same
+     * axis, which commute, are allowed to swap: {@code U D U'} becomes {@code D}.
+     */
+    public static List<Move> simplify(List<Move> moves) {
+        List<Move> out = new ArrayList<>(moves.size());
+        for (Move m : moves) {
+            int i = out.size() - 1;
+            while (i >= 0 && out.get(i).axis() == m.axis() && !out.get(i).sameLayers(m)) i--;
+            if (i >= 0 && out.get(i).sameLayers(m)) {
+                Move merged = Move.of(m.axis(), m.layers(), out.get(i).quarters() + m.quarters());
+                if (merged == null) out.remove(i);
+                else out.set(i, merged);
+            } else {
+                out.add(m);
+            }
+        }
+        return out;
+    }
+
+    /** The simplified moves. */
+    public List<Move> moves() { return moves; }
+
+    public int length() { return moves.size(); }
+
+    public Algorithm inverse() {
+        List<Move> inv = new ArrayList<>(moves.size());
+        for (int i = moves.size() - 1; i >= 0; i--) inv.add(moves.get(i).inverse());
+        return new Algorithm(inv);
+    }
+
+    /** This sequence followed by {@code next}, simplified across the join. */
+    public Algorithm then(Algorithm next) {
+        List<Move> all = new ArrayList<>(moves);
+        all.addAll(next.moves);
+        return of(all);
+    }
+
+    /** Applies the whole sequence to {@code state} in one pass. */
+    public void applyTo(CubeState state) {
+        state.apply(permutation);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Move m : moves) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(m.notation());
+        }
+        return sb.toString();
+    }
+
+    /** Recursive descent over moves, optional turn counts and primes, and repeated groups. */
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        List<Move> sequence() {
+            List<Move> out = new ArrayList<>();
+            while (true) {
+                skipSpaces();
+                if (pos == text.length() || text.charAt(pos) == ')') return out;
+                char c = text.charAt(pos);
+                if (c == '(') {
+                    pos++;
+                    List<Move> group = sequence();
+                    if (pos == text.length()) throw error("missing ')'");
+                    pos++;
+                    int times = number(1);
+                    if (out.size() + (long) group.size() * times > MAX_PARSED) throw error("sequence too long");
+                    for (int t = 0; t < times; t++) out.addAll(group);
+                    continue;
+                }
+                int letter = LETTERS.indexOf(c);
+                if (letter < 0) throw error("unknown move '" + c + "'");
+                pos++;
+                Move base = BASE[letter];
+                int quarters = base.quarters() * number(1);
+                if (pos < text.length() && (text.charAt(pos) == '\'' || text.charAt(pos) == '\u2019')) {
+                    pos++;
+                    quarters = -quarters;
+                }
+                Move m = Move.of(base.axis(), base.layers(), quarters);
+                if (m != null) out.add(m);
+            }
+        }
+
+        private int number(int fallback) {
+            int start = pos;
+            while (pos < text.length() && Character.isDigit(text.charAt(pos))) pos++;
+            if (start == pos) return fallback;
+            try {
+                return Integer.parseInt(text.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw error("count too large");
+            }
+        }
+
+        private void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos + " in \"" + text + "\"");
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * An N x N x N cube stored as six N x N sticker arrays (one byte per visible sticker), for
+ * sizes {@value #MIN_SIZE} to {@value #MAX_SIZE}. A layer turn moves the four N-sticker strips
+ * around that layer and, for the two outer layers, rotates that face's grid; nothing else is
+ * touched, so a turn costs O(N) or O(N^2) and never allocates.
+ *
+ * <p>Faces, grid layout, axes and turn direction are those of {@link CubeState}; a 3x3
+ * {@code BigCube} holds the same stickers in the same order after the same moves.
+ */
+public final class BigCube {
+
+    public static final int MIN_SIZE = 2;
+    public static final int MAX_SIZE = 4096;
+
+    private final int n;
+    private final byte[][] faces = new byte[6][];
+
+    // per axis: the four side faces the strips cycle through, and each strip's start index,
+    // step along the strip and step per layer
+    private final int[][] stripFace = new int[3][4];
+    private final int[][] stripBase = new int[3][4];
+    private final int[][] stripStep = new int[3][4];
+    private final int[][] stripLayerStep = new int[3][4];
+
+    // per axis and end (0 = layer 0, 1 = layer N - 1): the face turning with that layer, and
+    // the four grid positions of each quarter-turn orbit as base + row step + column step
+    private final int[][] endFace = new int[3][2];
+    private final int[][][] orbitBase = new int[3][2][4];
+    private final int[][][] orbitRowStep = new int[3][2][4];
+    private final int[][][] orbitColStep = new int[3][2][4];
+
+    /** Creates a solved cube of the given size. */
+    public BigCube(int size) {
+        if (size < MIN_SIZE || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Cube size must be " + MIN_SIZE + ".." + MAX_SIZE + ": " + size);
+        }
+        this.n = size;
+        for (int f = 0; f < 6; f++) faces[f] = new byte[n * n];
+        reset();
+        for (int axis = 0; axis < 3; axis++) buildTurn(axis);
+    }
+
+    public int size() { return n; }
+
+    /** Restores the solved state. */
+    public void reset() {
+        for (int f = 0; f < 6; f++) Arrays.fill(faces[f], (byte) CubeState.homeColor(f).ordinal());
+    }
+
+    /** Color ordinal of the sticker at a row and column of a face, laid out as in {@link CubeState}. */
+    public int get(int face, int row, int col) {
+        return faces[face][row * n + col];
+    }
+
+    public CubeColor color(int face, int row, int col) {
+        return CubeColor.of(get(face, row, col));
+    }
+
+    /** True when every face shows a single color. */
+    public boolean isSolved() {
+        for (byte[] face : faces) {
+            byte c = face[0];
+            for (byte b : face) if (b != c) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Turns one layer a number of counter-clockwise quarter turns about {@code axis}. Layer 0
+     * is at the negative end of the axis (L, D or B) and layer {@code size() - 1} at the
+     * positive end.
+     */
+    public void turn(int axis, int layer, int quarters) {
+        if (layer < 0 || layer >= n) throw new IndexOutOfBoundsException("Layer " + layer + " of " + n);
+        int q = quarters & 3;
+        if (q == 0) return;
+
+        int[] f = stripFace[axis], base = stripBase[axis], step = stripStep[axis], ls = stripLayerStep[axis];
+        byte[] a0 = faces[f[0]], a1 = faces[f[1]], a2 = faces[f[2]], a3 = faces[f[3]];
+        int i0 = base[0] + layer * ls[0], i1 = base[1] + layer * ls[1];
+        int i2 = base[2] + layer * ls[2], i3 = base[3] + layer * ls[3];
+        for (int k = 0; k < n; k++) {
+            cycle(a0, i0, a1, i1, a2, i2, a3, i3, q);
+            i0 += step[0];
+            i1 += step[1];
+            i2 += step[2];
+            i3 += step[3];
+        }
+
+        if (layer == 0 || layer == n - 1) {
+            int end = layer == 0 ? 0 : 1;
+            byte[] g = faces[endFace[axis][end]];
+            int[] ob = orbitBase[axis][end], rs = orbitRowStep[axis][end], cs = orbitColStep[axis][end];
+            for (int r = 0; r < n / 2; r++) {
+                for (int c = 0; c < (n + 1) / 2; c++) {
+                    cycle(g, ob[0] + r * rs[0] + c * cs[0], g, ob[1] + r * rs[1] + c * cs[1],
+                            g, ob[2] + r * rs[2] + c * cs[2], g, ob[3] + r * rs[3] + c * cs[3], q);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a {@link Move} by the layers it names: outer faces turn layer 0 or N - 1,
+     * slices turn every inner layer and rotations turn the whole cube.
+     */
+    public void apply(Move move) {
+        int layers = move.layers();
+        if ((layers & 0b001) != 0) turn(move.axis(), 0, move.quarters());
+        if ((layers & 0b010) != 0) {
+            for (int l = 1; l < n - 1; l++) turn(move.axis(), l, move.quarters());
+        }
+        if ((layers & 0b100) != 0) turn(move.axis(), n - 1, move.quarters());
+    }
+
+    public void apply(Move... moves) {
+        for (Move m : moves) apply(m);
+    }
+
+    // ------------------------------------------------------------------
+    // Geometry
+    //
+    // Sticker positions use doubled coordinates so they stay integers for every size: a
+    // sticker sits at N along its face normal and at odd or even offsets -(N-1)..N-1 on the
+    // grid axes. Every index below is linear in the strip position, layer, row and column, so
+    // each is stored as a base and steps measured once here.
+
+    private void buildTurn(int axis) {
+        int f0 = 0;
+        while (CubeState.normal(f0)[axis] != 0) f0++;
+        int[] n0 = CubeState.normal(f0);
+        int along = 3 - axis - axisOf(n0);
+        for (int i = 0; i < 4; i++) {
+            int[] p00 = stripPoint(n0, axis, along, 0, 0), p10 = stripPoint(n0, axis, along, 1, 0);
+            int[] p01 = stripPoint(n0, axis, along, 0, 1);
+            int[] normal = n0;
+            for (int t = 0; t < i; t++) {
+                p00 = CubeState.rotate(p00, axis, 1);
+                p10 = CubeState.rotate(p10, axis, 1);
+                p01 = CubeState.rotate(p01, axis, 1);
+                normal = CubeState.rotate(normal, axis, 1);
+            }
+            int face = CubeState.faceOf(normal[0], normal[1], normal[2]);
+            stripFace[axis][i] = face;
+            stripBase[axis][i] = index(face, p00);
+            stripStep[axis][i] = index(face, p10) - index(face, p00);
+            stripLayerStep[axis][i] = index(face, p01) - index(face, p00);
+        }
+
+        for (int end = 0; end < 2; end++) {
+            int[] normal = new int[3];
+            normal[axis] = end == 0 ? -1 : 1;
+            int face = CubeState.faceOf(normal[0], normal[1], normal[2]);
+            endFace[axis][end] = face;
+            int[] p00 = gridPoint(face, 0, 0), p10 = gridPoint(face, 1, 0), p01 = gridPoint(face, 0, 1);
+            for (int i = 0; i < 4; i++) {
+                orbitBase[axis][end][i] = index(face, p00);
+                orbitRowStep[axis][end][i] = index(face, p10) - index(face, p00);
+                orbitColStep[axis][end][i] = index(face, p01) - index(face, p00);
+                p00 = CubeState.rotate(p00, axis, 1);
+                p10 = CubeState.rotate(p10, axis, 1);
+                p01 = CubeState.rotate(p01, axis, 1);
+            }
+        }
+    }
+
+    /** Strip sticker {@code k} of layer {@code layer} on the side face with normal {@code n0}. */
+    private int[] stripPoint(int[] n0, int axis, int along, int k, int layer) {
+        int[] p = new int[3];
+        for (int a = 0; a < 3; a++) p[a] = n0[a] * n;
+        p[axis] = 2 * layer - (n - 1);
+        p[along] = 2 * k - (n - 1);
+        return p;
+    }
+
+    private int[] gridPoint(int face, int row, int col) {
+        int[] normal = CubeState.normal(face), cd = CubeState.colDir(face), rd = CubeState.rowDir(face);
+        int[] p = new int[3];
+        for (int a = 0; a < 3; a++) {
+            p[a] = normal[a] * n + (2 * col - (n - 1)) * cd[a] + (2 * row - (n - 1)) * rd[a];
+        }
+        return p;
+    }
+
+    private int index(int face, int[] p) {
+        int[] cd = CubeState.colDir(face), rd = CubeState.rowDir(face);
+        int col = (p[0] * cd[0] + p[1] * cd[1] + p[2] * cd[2] + n - 1) / 2;
+        int row = (p[0] * rd[0] + p[1] * rd[1] + p[2] * rd[2] + n - 1) / 2;
+        return row * n + col;
+    }
+
+    private static int axisOf(int[] v) {
+        return v[0] != 0 ? 0 : v[1] != 0 ? 1 : 2;
+    }
+
+    /** Moves stickers one step along 0 -> 1 -> 2 -> 3 -> 0, {@code q} times. */
+    private static void cycle(byte[] a0, int i0, byte[] a1, int i1, byte[] a2, int i2, byte[] a3, int i3, int q) {
+        byte t;
+        switch (q) {
+            case 1 -> {
+                t = a3[i3];
+                a3[i3] = a2[i2];
+                a2[i2] = a1[i1];
+                a1[i1] = a0[i0];
+                a0[i0] = t;
+            }
+            case 2 -> {
+                t = a0[i0];
+                a0[i0] = a2[i2];
+                a2[i2] = t;
+                t = a1[i1];
+                a1[i1] = a3[i3];
+                a3[i3] = t;
+            }
+            default -> {
+                t = a0[i0];
+                a0[i0] = a1[i1];
+                a1[i1] = a2[i2];
+                a2[i2] = a3[i3];
+                a3[i3] = t;
+            }
+        }
+    }
+}
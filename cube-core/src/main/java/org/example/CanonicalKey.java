@@ -0,0 +1,53 @@
+package org.example;
+
+/**
+ * A key shared by every state that is the same puzzle up to the cube's 48 symmetries and a
+ * relabeling of its colors: whole-cube rotations, mirror images and recolorings of a state
+ * all get the same key, and states that differ otherwise never do. The key is exact, not a
+ * hash: corners and edges are read relative to the face centers, conjugated by every symmetry,
+ * and the smallest packing wins.
+ *
+ * <p>Each slot's piece and orientation packs into 5 bits, so the corners fill 40 bits and the
+ * edges 60. Building a key costs a few microseconds; {@link CubeState#zobrist()} is the cheap
+ * per-move hash when symmetric states should stay apart.
+ */
+public record CanonicalKey(long corners, long edges) implements Comparable<CanonicalKey> {
+
+    /** The key of {@code state}, which must be a state reachable by moves. */
+    public static CanonicalKey of(CubeState state) {
+        CubieCube c = CubieCube.fromFacelets(state);
+        long bestCorners = Long.MAX_VALUE, bestEdges = Long.MAX_VALUE;
+        int[] corner = new int[CubieCube.CORNERS], edge = new int[CubieCube.EDGES];
+        for (Symmetry g : Symmetry.ALL) {
+            for (int j = 0; j < CubieCube.CORNERS; j++) {
+                int e = g.corner[(j * CubieCube.CORNERS + c.cp[j]) * 3 + c.co[j]];
+                corner[e / (CubieCube.CORNERS * 3)] = e % (CubieCube.CORNERS * 3);
+            }
+            long corners = pack(corner);
+            if (corners > bestCorners) continue;
+            for (int j = 0; j < CubieCube.EDGES; j++) {
+                int e = g.edge[(j * CubieCube.EDGES + c.ep[j]) * 2 + c.eo[j]];
+                edge[e / (CubieCube.EDGES * 2)] = e % (CubieCube.EDGES * 2);
+            }
+            long edges = pack(edge);
+            if (corners < bestCorners || edges < bestEdges) {
+                bestCorners = corners;
+                bestEdges = edges;
+            }
+        }
+        return new CanonicalKey(bestCorners, bestEdges);
+    }
+
+    // slot 0 in the highest bits, so numeric order is slot-by-slot order
+    private static long pack(int[] values) {
+        long packed = 0;
+        for (int v : values) packed = packed << 5 | v;
+        return packed;
+    }
+
+    @Override
+    public int compareTo(CanonicalKey o) {
+        int c = Long.compare(corners, o.corners);
+        return c != 0 ? c : Long.compare(edges, o.edges);
+    }
+}
@@ -0,0 +1,68 @@
+package org.example;
+
+/**
+ * Sticker color classification by table lookup. Every RGB color, quantized to 5 bits per
+ * channel, is classified once when the table is built, so classifying a pixel afterwards is
+ * one array read: no color conversion, no distance computations.
+ *
+ * <p>The standard table decides by hue, saturation and brightness, which holds up under the
+ * uneven lighting of phone photos far better than distances to fixed RGB values: stickers
+ * with little saturation are white, dark samples are {@link CubeColor#UNKNOWN}, and the rest
+ * fall into hue bands for red, orange, yellow, green and blue.
+ */
+public final class ColorTable {
+
+    private static final int BITS = 5;
+    private static final int LEVELS = 1 << BITS;
+
+    // where each hue band starts, in degrees; red wraps around 0
+    private static final float ORANGE_FROM = 8, YELLOW_FROM = 40, GREEN_FROM = 75, BLUE_FROM = 165,
+            PURPLE_FROM = 265, RED_FROM = 320;
+    private static final float WHITE_MAX_SATURATION = 0.25f;
+    private static final float DARK_MAX_VALUE = 0.2f;
+
+    private final byte[] table = new byte[LEVELS * LEVELS * LEVELS];
+
+    private ColorTable() {
+    }
+
+    /** The table for standard sticker colors in ordinary lighting. */
+    public static ColorTable standard() {
+        ColorTable t = new ColorTable();
+        for (int r = 0; r < LEVELS; r++) {
+            for (int g = 0; g < LEVELS; g++) {
+                for (int b = 0; b < LEVELS; b++) {
+                    t.table[(r << 2 * BITS) | (g << BITS) | b] = (byte) classifyHsv(level(r), level(g), level(b)).ordinal();
+                }
+            }
+        }
+        return t;
+    }
+
+    /** Classifies an 8-bit-per-channel color. */
+    public CubeColor classify(int r, int g, int b) {
+        return CubeColor.of(table[(r >> 8 - BITS << 2 * BITS) | (g >> 8 - BITS << BITS) | b >> 8 - BITS]);
+    }
+
+    // center of a quantization cell, 0..1
+    private static float level(int q) {
+        return (q + 0.5f) / LEVELS;
+    }
+
+    private static CubeColor classifyHsv(float r, float g, float b) {
+        float max = Math.max(r, Math.max(g, b)), min = Math.min(r, Math.min(g, b));
+        if (max < DARK_MAX_VALUE) return CubeColor.UNKNOWN;
+        float saturation = (max - min) / max;
+        if (saturation < WHITE_MAX_SATURATION) return CubeColor.WHITE;
+        float delta = max - min, hue;
+        if (max == r) hue = 60 * (((g - b) / delta + 6) % 6);
+        else if (max == g) hue = 60 * ((b - r) / delta + 2);
+        else hue = 60 * ((r - g) / delta + 4);
+        if (hue < ORANGE_FROM || hue >= RED_FROM) return CubeColor.RED;
+        if (hue < YELLOW_FROM) return CubeColor.ORANGE;
+        if (hue < GREEN_FROM) return CubeColor.YELLOW;
+        if (hue < BLUE_FROM) return CubeColor.GREEN;
+        if (hue < PURPLE_FROM) return CubeColor.BLUE;
+        return CubeColor.UNKNOWN; // magenta and purple are no sticker color
+    }
+}
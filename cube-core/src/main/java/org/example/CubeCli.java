@@ -0,0 +1,220 @@
+package org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line entry point of the core module, for batch jobs that need the cube model
+ * without the 3D front end. Only the classes a command touches are loaded, and solver tables
+ * are mapped rather than rebuilt, so a command starts in a few tens of milliseconds.
+ */
+public final class CubeCli {
+
+    private static final String USAGE = """
+            usage: cube-core <command> [options]
+              apply <moves>                    facelets after the moves, and whether solved
+              solve <moves> [--optimal] [--threads N]
+                                               solution for the state the moves reach
+              scramble [--kind state|moves|depth] [--length N] [--count N] [--seed S] [--out FILE]
+                       [--format text|states]  scrambles, one per line, or the states they reach
+                                               as a binary state archive (needs --out); --length
+                                               is 25 moves, or an optimal distance of 10 (at most
+                                               13) for depth
+              sessions <file>                  one line per recorded game in a session file
+              verify <journal>... [--threads N]
+                                               replays solve journals and checks every game
+              explore 2x2|ur|slices [--out FILE] [--threads N]
+                                               states at every distance from solved, by exhaustive
+                                               search; resumes an interrupted run in FILE
+              serve [--port N] [--host H]      HTTP puzzle service: /scramble, /validate, /solve
+            moves are in standard notation, e.g. "R U R' U2 x M'" or "(RUR'U')3"
+            """;
+
+    private CubeCli() {
+    }
+
+    public static void main(String[] args) {
+        try {
+            System.exit(run(args));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("I/O error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    static int run(String[] args) throws IOException {
+        if (args.length == 0) throw new IllegalArgumentException("missing command");
+        List<String> positional = new ArrayList<>();
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--optimal")) {
+                options.put("optimal", "true");
+            } else if (args[i].startsWith("--")) {
+                if (i + 1 == args.length) throw new IllegalArgumentException("missing value for " + args[i]);
+                options.put(args[i].substring(2), args[++i]);
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        return switch (args[0]) {
+            case "apply" -> apply(state(positional));
+            case "solve" -> solve(state(positional), options);
+            case "scramble" -> scramble(options);
+            case "sessions" -> sessions(positional);
+            case "verify" -> verify(positional, options);
+            case "explore" -> explore(positional, options);
+            case "serve" -> serve(options);
+            default -> throw new IllegalArgumentException("unknown command: " + args[0]);
+        };
+    }
+
+    private static int apply(CubeState state) {
+        System.out.println(state.toFaceletString());
+        System.out.println(state.isSolved() ? "solved" : "not solved");
+        return 0;
+    }
+
+    private static int solve(CubeState state, Map<String, String> options) throws IOException {
+        List<Move> solution;
+        if (options.containsKey("optimal")) {
+            OptimalSolver solver = OptimalSolver.load();
+            if (options.containsKey("threads")) solver = solver.withThreads(intOption(options, "threads", 1));
+            OptimalSolver.Result result = solver.search(state);
+            System.err.println(result);
+            solution = result.moves();
+        } else {
+            solution = TwoPhaseSolver.load().solve(state);
+        }
+        System.out.println(join(solution));
+        return 0;
+    }
+
+    private static int scramble(Map<String, String> options) throws IOException {
+        String kind = options.getOrDefault("kind", "state");
+        ScrambleGenerator generator = switch (kind) {
+            case "state" -> ScrambleGenerator.randomState(TwoPhaseSolver.load());
+            case "moves" -> ScrambleGenerator.randomMoves(intOption(options, "length", 25));
+            case "depth" -> ScrambleGenerator.exactDepth(intOption(options, "length", 10), OptimalSolver.load());
+            default -> throw new IllegalArgumentException("unknown scramble kind: " + kind);
+        };
+        long count = Long.parseLong(options.getOrDefault("count", "1"));
+        long seed = options.containsKey("seed") ? Long.parseLong(options.get("seed")) : System.nanoTime();
+        boolean states = switch (options.getOrDefault("format", "text")) {
+            case "text" -> false;
+            case "states" -> true;
+            default -> throw new IllegalArgumentException("unknown format: " + options.get("format"));
+        };
+        if (options.containsKey("out")) {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Path.of(options.get("out"))))) {
+                if (states) generator.writeStates(out, count, seed);
+                else generator.write(out, count, seed);
+            }
+        } else if (states) {
+            throw new IllegalArgumentException("--format states needs --out");
+        } else {
+            generator.write(System.out, count, seed);
+        }
+        return 0;
+    }
+
+    private static int sessions(List<String> positional) throws IOException {
+        if (positional.size() != 1) throw new IllegalArgumentException("sessions takes one file");
+        try (ReadableByteChannel in = Files.newByteChannel(Path.of(positional.get(0)))) {
+            Session s;
+            while ((s = Session.read(in)) != null) {
+                List<Move> played = new ArrayList<>();
+                for (Session.TimedMove m : s.moves()) played.add(m.move());
+                System.out.printf("%s  %-8s %3d moves %8.1fs  scramble %s  moves %s%n",
+                        Instant.ofEpochMilli(s.startedAt()), s.isSolved() ? "solved" : "unsolved",
+                        played.size(), s.elapsedMillis() / 1000.0, join(s.scramble()), join(played));
+            }
+        }
+        return 0;
+    }
+
+    private static int verify(List<String> positional, Map<String, String> options) {
+        if (positional.isEmpty()) throw new IllegalArgumentException("verify needs at least one journal");
+        List<Path> files = positional.stream().map(Path::of).toList();
+        int threads = intOption(options, "threads", Runtime.getRuntime().availableProcessors());
+        long start = System.nanoTime();
+        JournalVerifier.Report report = JournalVerifier.verify(files, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        report.problems().forEach(System.out::println);
+        System.out.printf("%s in %.2fs (%.0f MB/s)%n", report, seconds, report.bytes() / 1e6 / seconds);
+        return report.ok() ? 0 : 1;
+    }
+
+    private static int explore(List<String> positional, Map<String, String> options) throws IOException {
+        if (positional.size() != 1) throw new IllegalArgumentException("explore takes one state space");
+        StateSpace space = StateSpace.named(positional.get(0));
+        Path out = Path.of(options.getOrDefault("out", space.name() + ".bfs"));
+        int threads = intOption(options, "threads", Runtime.getRuntime().availableProcessors());
+        try (StateSpaceExplorer explorer = StateSpaceExplorer.open(space, out)) {
+            if (explorer.levels() > 1 && !explorer.isFinished()) {
+                System.out.println("resuming " + out + " after depth " + (explorer.levels() - 1));
+            }
+            explorer.run(threads, System.out);
+            long[] counts = explorer.counts();
+            long total = 0;
+            for (int d = 0; d < counts.length; d++) {
+                System.out.printf("%2d %,15d%n", d, counts[d]);
+                total += counts[d];
+            }
+            System.out.printf("%,d states in %s, distance table in %s%n", total, space.name(), out);
+        }
+        return 0;
+    }
+
+    private static int serve(Map<String, String> options) throws IOException {
+        InetSocketAddress address = new InetSocketAddress(options.getOrDefault("host", "127.0.0.1"), intOption(options, "port", 8080));
+        PuzzleServer server = PuzzleServer.start(address, TwoPhaseSolver.load());
+        System.out.printf("serving puzzles on http://%s:%d on %s threads%n", address.getHostString(),
+                server.address().getPort(), server.virtualThreads() ? "virtual" : "platform");
+        try {
+            Thread.currentThread().join(); // until the process is stopped
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server.close();
+        return 0;
+    }
+
+    private static CubeState state(List<String> positional) {
+        CubeState state = new CubeState();
+        Algorithm.parse(String.join(" ", positional)).applyTo(state);
+        return state;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int fallback) {
+        String value = options.get(name);
+        if (value == null) return fallback;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " expects a number: " + value);
+        }
+    }
+
+    private static String join(List<Move> moves) {
+        StringBuilder sb = new StringBuilder();
+        for (Move m : moves) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(m.notation());
+        }
+        return sb.toString();
+    }
+}
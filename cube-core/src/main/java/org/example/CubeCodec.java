@@ -0,0 +1,108 @@
+package org.example;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Building blocks of the binary formats: a cube state packed at 3 bits per facelet into
+ * {@value #STATE_BYTES} bytes, moves as one byte each, and unsigned LEB128 varints for counts
+ * and times, which take one byte for anything below 128.
+ */
+public final class CubeCodec {
+
+    public static final int STATE_BYTES = (CubeState.FACELETS * 3 + 7) / 8;
+
+    private static final Move[] MOVES = Move.values();
+    private static final int COLORS = CubeColor.values().length;
+
+    private CubeCodec() {
+    }
+
+    public static void putState(ByteBuffer out, CubeState state) {
+        long bits = 0;
+        int n = 0;
+        for (int i = 0; i < CubeState.FACELETS; i++) {
+            bits |= (long) state.get(i) << n;
+            n += 3;
+            if (n >= 8) {
+                out.put((byte) bits);
+                bits >>>= 8;
+                n -= 8;
+            }
+        }
+        if (n > 0) out.put((byte) bits);
+    }
+
+    /** Reads a packed state into {@code into}; throws IllegalArgumentException on a bad color. */
+    public static void getState(ByteBuffer in, CubeState into) {
+        getState(in, in.position(), into);
+        in.position(in.position() + STATE_BYTES);
+    }
+
+    /** Reads the packed state at an absolute offset, leaving the buffer position alone. */
+    public static void getState(ByteBuffer in, int offset, CubeState into) {
+        if (offset + STATE_BYTES > in.limit()) throw new BufferUnderflowException();
+        byte[] colors = new byte[CubeState.FACELETS];
+        long bits = 0;
+        int n = 0, pos = offset;
+        for (int i = 0; i < CubeState.FACELETS; i++) {
+            if (n < 3) {
+                bits |= (in.get(pos++) & 0xffL) << n;
+                n += 8;
+            }
+            int c = (int) (bits & 7);
+            if (c >= COLORS) throw new IllegalArgumentException("Bad color " + c + " at facelet " + i);
+            colors[i] = (byte) c;
+            bits >>>= 3;
+            n -= 3;
+        }
+        into.setAll(colors);
+    }
+
+    public static void putMove(ByteBuffer out, Move move) {
+        out.put((byte) move.ordinal());
+    }
+
+    public static Move getMove(ByteBuffer in) {
+        int m = in.get() & 0xff;
+        if (m >= MOVES.length) throw new IllegalArgumentException("Bad move " + m);
+        return MOVES[m];
+    }
+
+    /** Writes a non-negative value in 1 to 10 bytes. */
+    public static void putVarLong(ByteBuffer out, long value) {
+        if (value < 0) throw new IllegalArgumentException("Negative varint " + value);
+        while (value >= 0x80) {
+            out.put((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Varint longer than 10 bytes");
+    }
+
+    /** Like {@link #getVarLong} but rejects values that do not fit an int. */
+    public static int getVarInt(ByteBuffer in) {
+        long v = getVarLong(in);
+        if (v > Integer.MAX_VALUE) throw new IllegalArgumentException("Count too large: " + v);
+        return (int) v;
+    }
+
+    /** Bytes {@link #putVarLong} takes for {@code value}. */
+    public static int varLongSize(long value) {
+        int n = 1;
+        while (value >= 0x80) {
+            value >>>= 7;
+            n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,29 @@
+package org.example;
+
+public enum CubeColor {
+    WHITE(1f, 1f, 1f),
+    YELLOW(1f, 1f, 0f),
+    RED(1f, 0f, 0f),
+    ORANGE(1f, 0.6f, 0f),
+    BLUE(0f, 0f, 1f),
+    GREEN(0f, 1f, 0f),
+    UNKNOWN(0.2f, 0.2f, 0.2f);
+
+    private static final CubeColor[] VALUES = values();
+
+    private final float[] rgb;
+
+    CubeColor(float r, float g, float b) {
+        this.rgb = new float[]{r, g, b};
+    }
+
+    /** Looks up a color by ordinal without the array copy of {@code values()}. */
+    public static CubeColor of(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /** Returns the display color for JOGL. The array is shared, callers must not modify it. */
+    public float[] rgb() {
+        return rgb;
+    }
+}
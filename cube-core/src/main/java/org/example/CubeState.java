@@ -0,0 +1,314 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Headless cube model. The puzzle is stored as 54 packed facelets (one byte per sticker,
+ * holding a {@link CubeColor} ordinal) laid out U, R, F, D, L, B with nine stickers per face,
+ * row-major as seen from outside the cube. A move is a single gather through the permutation
+ * precomputed by {@link Move} and never allocates.
+ *
+ * <p>Axes and directions follow the existing {@code RubiksCube} convention: x points right,
+ * y up, z towards the viewer, and a positive quarter turn is counter-clockwise when looking
+ * at the layer from the positive end of its axis.
+ */
+public final class CubeState {
+
+    public static final int FACELETS = 54;
+
+    // face indices, also the order of the facelet array
+    public static final int U = 0, R = 1, F = 2, D = 3, L = 4, B = 5;
+
+    // axis indices
+    public static final int X = 0, Y = 1, Z = 2;
+
+    private static final int[][] NORMAL = {
+            {0, 1, 0}, {1, 0, 0}, {0, 0, 1}, {0, -1, 0}, {-1, 0, 0}, {0, 0, -1}
+    };
+    // sticker grid directions of each face: column (left -> right) and row (top -> bottom)
+    private static final int[][] COL_DIR = {
+            {1, 0, 0}, {0, 0, -1}, {1, 0, 0}, {1, 0, 0}, {0, 0, 1}, {-1, 0, 0}
+    };
+    private static final int[][] ROW_DIR = {
+            {0, 0, 1}, {0, -1, 0}, {0, -1, 0}, {0, 0, -1}, {0, -1, 0}, {0, -1, 0}
+    };
+
+    /** Colors of a solved cube, matching the sticker colors the app's {@code Cubie} starts with. */
+    private static final CubeColor[] HOME = {
+            CubeColor.WHITE, CubeColor.ORANGE, CubeColor.GREEN,
+            CubeColor.YELLOW, CubeColor.RED, CubeColor.BLUE
+    };
+
+    // cubie coordinate of every facelet
+    private static final int[][] POS = new int[FACELETS][];
+    // facelet index by (cubie, face), -1 for stickers hidden inside the cube
+    private static final int[] FACELET_AT = new int[27 * 6];
+    // Zobrist keys by facelet * 8 + color; a fixed seed keeps hashes stable across runs
+    private static final long[] ZOBRIST = new long[FACELETS * 8];
+    private static final long SOLVED_HASH;
+
+    static {
+        Arrays.fill(FACELET_AT, -1);
+        for (int i = 0; i < FACELETS; i++) {
+            int f = i / 9, row = (i % 9) / 3, col = i % 3;
+            int[] p = new int[3];
+            for (int a = 0; a < 3; a++) {
+                p[a] = NORMAL[f][a] + (col - 1) * COL_DIR[f][a] + (row - 1) * ROW_DIR[f][a];
+            }
+            POS[i] = p;
+            FACELET_AT[key(p[0], p[1], p[2], f)] = i;
+        }
+        SplittableRandom rng = new SplittableRandom(0x5EED_C0BEL);
+        for (int i = 0; i < ZOBRIST.length; i++) ZOBRIST[i] = rng.nextLong();
+        long h = 0;
+        for (int i = 0; i < FACELETS; i++) h ^= ZOBRIST[i * 8 + HOME[i / 9].ordinal()];
+        SOLVED_HASH = h;
+    }
+
+    private byte[] facelets = new byte[FACELETS];
+    private byte[] scratch = new byte[FACELETS];
+    // stickers that differ from the center of their face; kept current by every move
+    private int misplaced;
+    // XOR of the Zobrist keys of every (facelet, color); kept current by every move
+    private long hash;
+
+    /** Creates a solved cube. */
+    public CubeState() {
+        reset();
+    }
+
+    /**
+     * Builds a state from 54 sticker colors in facelet order, for example read off photos.
+     * Throws IllegalArgumentException unless the colors are those of a real cube, one that
+     * moves can solve: six colors with nine stickers each and distinct centers, every piece
+     * present once, and no twisted corner, flipped edge or swapped pair.
+     */
+    public static CubeState fromColors(CubeColor[] colors) {
+        if (colors.length != FACELETS) throw new IllegalArgumentException("Need " + FACELETS + " stickers, got " + colors.length);
+        int[] count = new int[CubeColor.values().length];
+        byte[] facelets = new byte[FACELETS];
+        for (int i = 0; i < FACELETS; i++) {
+            if (colors[i] == null || colors[i] == CubeColor.UNKNOWN) {
+                throw new IllegalArgumentException("Sticker " + i + " has no color");
+            }
+            count[colors[i].ordinal()]++;
+            facelets[i] = (byte) colors[i].ordinal();
+        }
+        for (CubeColor c : CubeColor.values()) {
+            if (c != CubeColor.UNKNOWN && count[c.ordinal()] != 9) {
+                throw new IllegalArgumentException(c + " appears on " + count[c.ordinal()] + " stickers, not 9");
+            }
+        }
+        CubeState state = new CubeState();
+        state.setAll(facelets);
+        String problem;
+        try {
+            problem = CubieCube.fromFacelets(state).whyUnsolvable();
+        } catch (IllegalStateException e) {
+            problem = "a piece has impossible colors";
+        }
+        if (problem != null) throw new IllegalArgumentException("Not a solvable cube: " + problem);
+        return state;
+    }
+
+    /** Restores the solved state. */
+    public void reset() {
+        for (int i = 0; i < FACELETS; i++) facelets[i] = (byte) HOME[i / 9].ordinal();
+        misplaced = 0;
+        hash = SOLVED_HASH;
+    }
+
+    public void copyFrom(CubeState other) {
+        System.arraycopy(other.facelets, 0, facelets, 0, FACELETS);
+        misplaced = other.misplaced;
+        hash = other.hash;
+    }
+
+    /** Replaces every facelet with the color ordinals in {@code colors}, which the caller has checked. */
+    void setAll(byte[] colors) {
+        System.arraycopy(colors, 0, facelets, 0, FACELETS);
+        misplaced = countMisplaced();
+        hash = computeHash();
+    }
+
+    /**
+     * True when every face shows a single color. The check is a field read; slice moves and
+     * whole-cube rotations that leave each face uniform still count as solved.
+     */
+    public boolean isSolved() { return misplaced == 0; }
+
+    /**
+     * A 64-bit Zobrist hash of the facelets, updated with a few XORs per move instead of being
+     * recomputed. Equal states always hash alike and the keys are fixed, so hashes may be
+     * stored; distinct states collide with probability about 2<sup>-64</sup>. For a key shared
+     * by all symmetric and recolored versions of a state, see {@link CanonicalKey}.
+     */
+    public long zobrist() { return hash; }
+
+    /** Returns the color ordinal of a facelet. */
+    public int get(int facelet) { return facelets[facelet]; }
+
+    public CubeColor color(int facelet) { return CubeColor.of(facelets[facelet]); }
+
+    public void apply(Move move) {
+        byte[] src = gather(move.permutation());
+        byte[] dst = facelets;
+        long h = hash;
+        if (move.movesCenters()) {
+            for (byte i : move.moved()) h ^= ZOBRIST[i * 8 + src[i]] ^ ZOBRIST[i * 8 + dst[i]];
+            hash = h;
+            misplaced = countMisplaced();
+            return;
+        }
+        // centers stay put, so only the moved stickers can change the count or the hash
+        int n = misplaced;
+        for (byte i : move.moved()) {
+            int center = dst[i / 9 * 9 + 4];
+            n += (dst[i] != center ? 1 : 0) - (src[i] != center ? 1 : 0);
+            h ^= ZOBRIST[i * 8 + src[i]] ^ ZOBRIST[i * 8 + dst[i]];
+        }
+        misplaced = n;
+        hash = h;
+    }
+
+    public void apply(Move... moves) {
+        for (Move m : moves) apply(m);
+    }
+
+    /** Applies a gather permutation: the sticker at {@code perm[i]} moves to {@code i}. */
+    void apply(byte[] perm) {
+        gather(perm);
+        misplaced = countMisplaced();
+        hash = computeHash();
+    }
+
+    /** Permutes the facelets and returns the previous array. */
+    private byte[] gather(byte[] perm) {
+        byte[] src = facelets, dst = scratch;
+        for (int i = 0; i < FACELETS; i++) dst[i] = src[perm[i]];
+        facelets = dst;
+        scratch = src;
+        return src;
+    }
+
+    private long computeHash() {
+        long h = 0;
+        for (int i = 0; i < FACELETS; i++) h ^= ZOBRIST[i * 8 + facelets[i]];
+        return h;
+    }
+
+    private int countMisplaced() {
+        int n = 0;
+        for (int i = 0; i < FACELETS; i++) {
+            if (facelets[i] != facelets[i / 9 * 9 + 4]) n++;
+        }
+        return n;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CubeState s && hash == s.hash && Arrays.equals(facelets, s.facelets);
+    }
+
+    @Override
+    public int hashCode() { return Long.hashCode(hash); }
+
+    /**
+     * The facelets in the usual {@code UUUUUUUUURRR...} notation: each sticker is named after
+     * the face whose center has its color.
+     */
+    public String toFaceletString() {
+        char[] face = new char[CubeColor.values().length];
+        for (int f = 0; f < 6; f++) face[facelets[f * 9 + 4]] = "URFDLB".charAt(f);
+        char[] out = new char[FACELETS];
+        for (int i = 0; i < FACELETS; i++) out[i] = face[facelets[i]];
+        return new String(out);
+    }
+
+    // ------------------------------------------------------------------
+    // Geometry
+
+    /** Returns the facelet on face {@code face} of the cubie at (x, y, z), or -1 if hidden. */
+    public static int faceletAt(int x, int y, int z, int face) {
+        return FACELET_AT[key(x, y, z, face)];
+    }
+
+    /** Returns the face whose outward normal is (nx, ny, nz). */
+    public static int faceOf(int nx, int ny, int nz) {
+        for (int f = 0; f < 6; f++) {
+            if (NORMAL[f][0] == nx && NORMAL[f][1] == ny && NORMAL[f][2] == nz) return f;
+        }
+        throw new IllegalArgumentException("Not an axis normal: " + nx + "," + ny + "," + nz);
+    }
+
+    /** Cubie coordinate of a facelet; the returned array must not be modified. */
+    static int[] position(int facelet) { return POS[facelet]; }
+
+    /** Outward normal of a face; the returned array must not be modified. */
+    static int[] normal(int face) { return NORMAL[face]; }
+
+    /** Direction of increasing column on a face; the returned array must not be modified. */
+    static int[] colDir(int face) { return COL_DIR[face]; }
+
+    /** Direction of increasing row on a face; the returned array must not be modified. */
+    static int[] rowDir(int face) { return ROW_DIR[face]; }
+
+    /** Sticker color of a face on the solved cube. */
+    static CubeColor homeColor(int face) { return HOME[face]; }
+
+    private static int key(int x, int y, int z, int face) {
+        return (((x + 1) * 3 + (y + 1)) * 3 + (z + 1)) * 6 + face;
+    }
+
+    /**
+     * Builds the gather permutation that turns the layers in {@code layers} (bit {@code l + 1}
+     * set for layer {@code l}) a number of counter-clockwise quarter turns about {@code axis}.
+     */
+    static byte[] permutation(int axis, int layers, int quarters) {
+        byte[] perm = quarterTurn(axis, layers, quarters < 0 ? -1 : 1);
+        byte[] step = perm;
+        for (int q = Math.abs(quarters); q > 1; q--) perm = compose(perm, step);
+        return perm;
+    }
+
+    /** Returns the gather permutation of applying {@code first} and then {@code second}. */
+    static byte[] compose(byte[] first, byte[] second) {
+        byte[] perm = new byte[FACELETS];
+        for (int i = 0; i < FACELETS; i++) perm[i] = first[second[i]];
+        return perm;
+    }
+
+    /** Returns the facelets a permutation moves. */
+    static byte[] moved(byte[] perm) {
+        int n = 0;
+        for (int i = 0; i < FACELETS; i++) if (perm[i] != i) n++;
+        byte[] moved = new byte[n];
+        for (int i = 0, k = 0; i < FACELETS; i++) if (perm[i] != i) moved[k++] = (byte) i;
+        return moved;
+    }
+
+    private static byte[] quarterTurn(int axis, int layers, int dir) {
+        byte[] perm = new byte[FACELETS];
+        for (int i = 0; i < FACELETS; i++) perm[i] = (byte) i;
+        for (int i = 0; i < FACELETS; i++) {
+            int[] p = POS[i];
+            if ((layers & 1 << (p[axis] + 1)) == 0) continue;
+            int[] q = rotate(p, axis, dir);
+            int[] n = rotate(NORMAL[i / 9], axis, dir);
+            int to = faceletAt(q[0], q[1], q[2], faceOf(n[0], n[1], n[2]));
+            perm[to] = (byte) i;
+        }
+        return perm;
+    }
+
+    /** Rotates an integer vector a quarter turn about an axis, counter-clockwise for dir > 0. */
+    static int[] rotate(int[] v, int axis, int dir) {
+        int x = v[0], y = v[1], z = v[2];
+        return switch (axis) {
+            case X -> dir > 0 ? new int[]{x, -z, y} : new int[]{x, z, -y};
+            case Y -> dir > 0 ? new int[]{z, y, -x} : new int[]{-z, y, x};
+            default -> dir > 0 ? new int[]{-y, x, z} : new int[]{y, -x, z};
+        };
+    }
+}
@@ -0,0 +1,368 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * The cube at the piece level: which corner and edge sits in each slot and how it is twisted
+ * or flipped. Slots and pieces use the usual solver order (corners URF, UFL, ULB, UBR, DFR, DLF,
+ * DBL, DRB; edges UR, UF, UL, UB, DR, DF, DL, DB, FR, FL, BL, BR) and the coordinates below
+ * are the ones the two-phase solver indexes its tables with.
+ */
+final class CubieCube {
+
+    static final int CORNERS = 8, EDGES = 12;
+
+    // facelets of each corner and edge slot, starting with the U or D sticker
+    static final int[][] CORNER_FACELET = {
+            {8, 9, 20}, {6, 18, 38}, {0, 36, 47}, {2, 45, 11},
+            {29, 26, 15}, {27, 44, 24}, {33, 53, 42}, {35, 17, 51}
+    };
+    static final int[][] EDGE_FACELET = {
+            {5, 10}, {7, 19}, {3, 37}, {1, 46}, {32, 16}, {28, 25},
+            {30, 43}, {34, 52}, {23, 12}, {21, 41}, {50, 39}, {48, 14}
+    };
+
+    // the quarter turns U, R, F, D, L, B read off the facelet model
+    static final CubieCube[] FACE_TURNS;
+
+    static {
+        Move[] quarter = {Move.U, Move.R, Move.F, Move.D, Move.L, Move.B};
+        FACE_TURNS = new CubieCube[quarter.length];
+        for (int i = 0; i < quarter.length; i++) {
+            CubeState s = new CubeState();
+            s.apply(quarter[i]);
+            FACE_TURNS[i] = fromFacelets(s);
+        }
+    }
+
+    final byte[] cp = new byte[CORNERS];
+    final byte[] co = new byte[CORNERS];
+    final byte[] ep = new byte[EDGES];
+    final byte[] eo = new byte[EDGES];
+    private final byte[] tmpP = new byte[EDGES], tmpO = new byte[EDGES];
+
+    /** Creates a solved cube. */
+    CubieCube() {
+        for (int i = 0; i < CORNERS; i++) cp[i] = (byte) i;
+        for (int i = 0; i < EDGES; i++) ep[i] = (byte) i;
+    }
+
+    CubieCube(CubieCube other) {
+        copyFrom(other);
+    }
+
+    void copyFrom(CubieCube other) {
+        System.arraycopy(other.cp, 0, cp, 0, CORNERS);
+        System.arraycopy(other.co, 0, co, 0, CORNERS);
+        System.arraycopy(other.ep, 0, ep, 0, EDGES);
+        System.arraycopy(other.eo, 0, eo, 0, EDGES);
+    }
+
+    /**
+     * A uniformly random solvable cube: any corner and edge permutations of equal parity, any
+     * twist and any flip.
+     */
+    static CubieCube random(RandomGenerator rng) {
+        CubieCube c = new CubieCube();
+        boolean odd = shuffle(c.cp, rng) != shuffle(c.ep, rng);
+        if (odd) {
+            byte t = c.ep[0];
+            c.ep[0] = c.ep[1];
+            c.ep[1] = t;
+        }
+        c.setTwist(rng.nextInt(2187));
+        c.setFlip(rng.nextInt(2048));
+        return c;
+    }
+
+    /** Fisher-Yates shuffle; returns true when the result is an odd permutation. */
+    private static boolean shuffle(byte[] a, RandomGenerator rng) {
+        boolean odd = false;
+        for (int i = a.length - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            if (j == i) continue;
+            byte t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+            odd = !odd;
+        }
+        return odd;
+    }
+
+    /**
+     * Reads the pieces off a facelet state. Colors are matched against the current face
+     * centers, so states reached with slices or rotations convert relative to those centers.
+     */
+    static CubieCube fromFacelets(CubeState state) {
+        int[] face = new int[CubeColor.values().length];
+        for (int f = 0; f < 6; f++) face[state.get(f * 9 + 4)] = f;
+        int[] labels = new int[CubeState.FACELETS];
+        for (int i = 0; i < CubeState.FACELETS; i++) labels[i] = face[state.get(i)];
+
+        CubieCube c = new CubieCube();
+        for (int i = 0; i < CORNERS; i++) {
+            int corner = cornerAt(labels, i);
+            c.cp[i] = (byte) (corner / 3);
+            c.co[i] = (byte) (corner % 3);
+        }
+        for (int i = 0; i < EDGES; i++) {
+            int edge = edgeAt(labels, i);
+            c.ep[i] = (byte) (edge / 2);
+            c.eo[i] = (byte) (edge % 2);
+        }
+        return c;
+    }
+
+    /** Reads the corner in a slot from per-facelet face labels, as {@code piece * 3 + twist}. */
+    static int cornerAt(int[] labels, int slot) {
+        int ori = 0;
+        while (ori < 3) {
+            int f = labels[CORNER_FACELET[slot][ori]];
+            if (f == CubeState.U || f == CubeState.D) break;
+            ori++;
+        }
+        if (ori == 3) throw new IllegalStateException("Corner " + slot + " has no U/D sticker");
+        int col1 = labels[CORNER_FACELET[slot][(ori + 1) % 3]];
+        int col2 = labels[CORNER_FACELET[slot][(ori + 2) % 3]];
+        for (int j = 0; j < CORNERS; j++) {
+            if (CORNER_FACELET[j][1] / 9 == col1 && CORNER_FACELET[j][2] / 9 == col2) return j * 3 + ori;
+        }
+        throw new IllegalStateException("Unknown corner at slot " + slot);
+    }
+
+    /** Reads the edge in a slot from per-facelet face labels, as {@code piece * 2 + flip}. */
+    static int edgeAt(int[] labels, int slot) {
+        int a = labels[EDGE_FACELET[slot][0]];
+        int b = labels[EDGE_FACELET[slot][1]];
+        for (int j = 0; j < EDGES; j++) {
+            int e0 = EDGE_FACELET[j][0] / 9, e1 = EDGE_FACELET[j][1] / 9;
+            if (e0 == a && e1 == b) return j * 2;
+            if (e0 == b && e1 == a) return j * 2 + 1;
+        }
+        throw new IllegalStateException("Unknown edge at slot " + slot);
+    }
+
+    /** The facelet state with these pieces and the home centers; the inverse of {@link #fromFacelets}. */
+    CubeState toFacelets() {
+        byte[] colors = new byte[CubeState.FACELETS];
+        for (int i = 0; i < CubeState.FACELETS; i++) colors[i] = (byte) CubeState.homeColor(i / 9).ordinal();
+        for (int i = 0; i < CORNERS; i++) {
+            for (int n = 0; n < 3; n++) {
+                colors[CORNER_FACELET[i][(n + co[i]) % 3]] = (byte) CubeState.homeColor(CORNER_FACELET[cp[i]][n] / 9).ordinal();
+            }
+        }
+        for (int i = 0; i < EDGES; i++) {
+            for (int n = 0; n < 2; n++) {
+                colors[EDGE_FACELET[i][(n + eo[i]) % 2]] = (byte) CubeState.homeColor(EDGE_FACELET[ep[i]][n] / 9).ordinal();
+            }
+        }
+        CubeState s = new CubeState();
+        s.setAll(colors);
+        return s;
+    }
+
+    // ------------------------------------------------------------------
+    // Multiplication: this * other means "this, then other"
+
+    void multiply(CubieCube other) {
+        byte[] p = tmpP, o = tmpO;
+        for (int i = 0; i < CORNERS; i++) {
+            p[i] = cp[other.cp[i]];
+            o[i] = (byte) ((co[other.cp[i]] + other.co[i]) % 3);
+        }
+        System.arraycopy(p, 0, cp, 0, CORNERS);
+        System.arraycopy(o, 0, co, 0, CORNERS);
+        for (int i = 0; i < EDGES; i++) {
+            p[i] = ep[other.ep[i]];
+            o[i] = (byte) ((eo[other.ep[i]] + other.eo[i]) & 1);
+        }
+        System.arraycopy(p, 0, ep, 0, EDGES);
+        System.arraycopy(o, 0, eo, 0, EDGES);
+    }
+
+    /**
+     * Null if the cube can be reached by moves, otherwise what is wrong: a piece appearing
+     * twice, a twisted corner, a flipped edge, or two pieces swapped.
+     */
+    String whyUnsolvable() {
+        if (!isPermutation(cp) || !isPermutation(ep)) return "a piece appears twice";
+        int twist = 0, flip = 0;
+        for (byte t : co) twist += t;
+        for (byte f : eo) flip += f;
+        if (twist % 3 != 0) return "a corner is twisted";
+        if (flip % 2 != 0) return "an edge is flipped";
+        if (isOdd(cp) != isOdd(ep)) return "two pieces are swapped";
+        return null;
+    }
+
+    private static boolean isPermutation(byte[] p) {
+        int seen = 0;
+        for (byte v : p) seen |= 1 << v;
+        return seen == (1 << p.length) - 1;
+    }
+
+    private static boolean isOdd(byte[] p) {
+        boolean odd = false;
+        for (int i = 0; i < p.length; i++) {
+            for (int j = i + 1; j < p.length; j++) if (p[i] > p[j]) odd = !odd;
+        }
+        return odd;
+    }
+
+    /** Applies face turn {@code face} (U, R, F, D, L, B order) {@code quarters} times. */
+    void turn(int face, int quarters) {
+        for (int q = 0; q < quarters; q++) multiply(FACE_TURNS[face]);
+    }
+
+    // ------------------------------------------------------------------
+    // Coordinates
+
+    /** Corner orientation, 0..2186. */
+    int twist() {
+        int t = 0;
+        for (int i = 0; i < CORNERS - 1; i++) t = 3 * t + co[i];
+        return t;
+    }
+
+    void setTwist(int twist) {
+        int parity = 0;
+        for (int i = CORNERS - 2; i >= 0; i--) {
+            co[i] = (byte) (twist % 3);
+            parity += co[i];
+            twist /= 3;
+        }
+        co[CORNERS - 1] = (byte) ((3 - parity % 3) % 3);
+    }
+
+    /** Edge orientation, 0..2047. */
+    int flip() {
+        int f = 0;
+        for (int i = 0; i < EDGES - 1; i++) f = 2 * f + eo[i];
+        return f;
+    }
+
+    void setFlip(int flip) {
+        int parity = 0;
+        for (int i = EDGES - 2; i >= 0; i--) {
+            eo[i] = (byte) (flip & 1);
+            parity += eo[i];
+            flip >>= 1;
+        }
+        eo[EDGES - 1] = (byte) (parity & 1);
+    }
+
+    /**
+     * Positions and order of the four middle-layer edges (FR, FL, BL, BR), 0..11879. Divided
+     * by 24 it is the phase 1 slice coordinate; below 24 the edges are home in their layer.
+     */
+    int sliceSorted() {
+        int a = 0, x = 0;
+        int[] edge4 = new int[4];
+        for (int j = EDGES - 1; j >= 0; j--) {
+            if (ep[j] >= 8) {
+                a += binomial(11 - j, x + 1);
+                edge4[3 - x] = ep[j];
+                x++;
+            }
+        }
+        int b = 0;
+        for (int j = 3; j > 0; j--) {
+            int k = 0;
+            while (edge4[j] != j + 8) {
+                rotateLeft(edge4, j);
+                k++;
+            }
+            b = (j + 1) * b + k;
+        }
+        return 24 * a + b;
+    }
+
+    void setSliceSorted(int index) {
+        int[] sliceEdge = {8, 9, 10, 11};
+        int b = index % 24, a = index / 24;
+        for (int j = 1; j < 4; j++) {
+            int k = b % (j + 1);
+            b /= j + 1;
+            while (k-- > 0) rotateRight(sliceEdge, j);
+        }
+        Arrays.fill(ep, (byte) -1);
+        int x = 4;
+        for (int j = 0; j < EDGES; j++) {
+            if (a - binomial(11 - j, x) >= 0) {
+                ep[j] = (byte) sliceEdge[4 - x];
+                a -= binomial(11 - j, x);
+                x--;
+            }
+        }
+        x = 0;
+        for (int j = 0; j < EDGES; j++) {
+            if (ep[j] == -1) ep[j] = (byte) x++;
+        }
+    }
+
+    /** Corner permutation, 0..40319. */
+    int corners() {
+        return permutationIndex(cp, CORNERS);
+    }
+
+    void setCorners(int index) {
+        setPermutation(cp, CORNERS, index);
+    }
+
+    /** Permutation of the eight U and D layer edges, 0..40319; only meaningful in phase 2. */
+    int udEdges() {
+        return permutationIndex(ep, 8);
+    }
+
+    void setUdEdges(int index) {
+        setPermutation(ep, 8, index);
+        for (int i = 8; i < EDGES; i++) ep[i] = (byte) i;
+    }
+
+    private static int permutationIndex(byte[] src, int n) {
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) perm[i] = src[i];
+        int b = 0;
+        for (int j = n - 1; j > 0; j--) {
+            int k = 0;
+            while (perm[j] != j) {
+                rotateLeft(perm, j);
+                k++;
+            }
+            b = (j + 1) * b + k;
+        }
+        return b;
+    }
+
+    private static void setPermutation(byte[] dst, int n, int index) {
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) perm[i] = i;
+        for (int j = 1; j < n; j++) {
+            int k = index % (j + 1);
+            index /= j + 1;
+            while (k-- > 0) rotateRight(perm, j);
+        }
+        for (int i = 0; i < n; i++) dst[i] = (byte) perm[i];
+    }
+
+    // rotate arr[0..r] one step
+    private static void rotateLeft(int[] arr, int r) {
+        int t = arr[0];
+        System.arraycopy(arr, 1, arr, 0, r);
+        arr[r] = t;
+    }
+
+    private static void rotateRight(int[] arr, int r) {
+        int t = arr[r];
+        System.arraycopy(arr, 0, arr, 1, r);
+        arr[0] = t;
+    }
+
+    static int binomial(int n, int k) {
+        if (k < 0 || k > n) return 0;
+        int r = 1;
+        for (int i = 0; i < k; i++) r = r * (n - i) / (i + 1);
+        return r;
+    }
+}
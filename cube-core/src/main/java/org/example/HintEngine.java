@@ -0,0 +1,192 @@
+package org.example;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Suggests the next move towards solved. Searches run on one background thread, so callers
+ * only ever pay for a map lookup: {@link #hint} answers from the cache at once and otherwise
+ * within {@code budgetMillis}, with {@link Hint#SEARCHING} if the search is not done by then.
+ * {@link #searched} waits for the search itself.
+ *
+ * <p>Each search is a {@link TwoPhaseSolver#solveWithin} given what is left of the budget, so
+ * it returns the best solution found in time, or a longer fallback when none of at most
+ * {@value TwoPhaseSolver#DEFAULT_MAX_LENGTH} moves turned up. The whole solution is cached, one
+ * entry per state along it, so a player who follows the hints gets every later one from the
+ * cache. Entries are keyed by {@link CubeState#zobrist()}, checked against the stored state,
+ * and evicted least recently used first. {@link #speculate} starts a search for a state the
+ * player is about to reach; a speculation that is still queued when a newer one arrives is
+ * skipped.
+ */
+public final class HintEngine implements AutoCloseable {
+
+    // of the budget, kept back from the search for caching its result and completing the future
+    private static final long STORE_MILLIS = 1;
+
+    /** The move to make next and the length of the solution it starts; no move when solved. */
+    public record Hint(Move move, int remaining) {
+        /** What {@link #hint} completes with when the search outlasts the budget. */
+        public static final Hint SEARCHING = new Hint(null, -1);
+
+        public boolean searching() {
+            return remaining < 0;
+        }
+    }
+
+    private record Cached(CubeState state, Hint hint) {}
+
+    /** A queued or running search; wanted once someone asked for it rather than speculated. */
+    private static final class Search {
+        final CompletableFuture<Hint> future = new CompletableFuture<>();
+        private boolean wanted, dropped;
+
+        Search(boolean wanted) {
+            this.wanted = wanted;
+        }
+
+        /** Marks the search wanted; false if it was already dropped. */
+        synchronized boolean want() {
+            wanted |= !dropped;
+            return !dropped;
+        }
+
+        /** Drops a speculation nobody asked for and that is no longer the latest. */
+        synchronized boolean drop(boolean stale) {
+            dropped = !wanted && stale;
+            return dropped;
+        }
+    }
+
+    private final TwoPhaseSolver solver;
+    private final long budgetMillis;
+    private final Map<Long, Cached> cache;
+    private final Map<Long, Search> searching = new ConcurrentHashMap<>();
+    private final AtomicLong latestSpeculation = new AtomicLong();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "hints");
+        t.setDaemon(true);
+        t.setPriority(Thread.NORM_PRIORITY - 1); // never compete with rendering
+        return t;
+    });
+    private final AtomicLong hits = new AtomicLong(), searches = new AtomicLong(), skipped = new AtomicLong();
+
+    public HintEngine(TwoPhaseSolver solver, int capacity, long budgetMillis) {
+        this.solver = solver;
+        this.budgetMillis = budgetMillis;
+        this.cache = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Cached> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /** The hint for {@code state} if it is cached, else null. Never waits for a search. */
+    public Hint cached(CubeState state) {
+        synchronized (cache) {
+            Cached e = cache.get(state.zobrist());
+            return e != null && e.state().equals(state) ? e.hint() : null;
+        }
+    }
+
+    /**
+     * The hint for {@code state}: already complete when cached, otherwise completed within the
+     * budget, by the background search or with {@link Hint#SEARCHING} while it carries on. The
+     * state is copied, so the caller may keep changing it.
+     */
+    public CompletableFuture<Hint> hint(CubeState state) {
+        CompletableFuture<Hint> searched = searched(state);
+        if (searched.isDone()) return searched;
+        // a copy, so the timeout never completes the search's own future for other callers
+        return searched.copy().completeOnTimeout(Hint.SEARCHING, budgetMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Like {@link #hint}, but completed only when the search ends, however long it takes. */
+    public CompletableFuture<Hint> searched(CubeState state) {
+        Hint h = cached(state);
+        if (h != null) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(h);
+        }
+        return search(state, false);
+    }
+
+    /** Starts a low-priority search for a state the player is likely to reach next. */
+    public void speculate(CubeState state) {
+        if (cached(state) != null) return;
+        latestSpeculation.set(state.zobrist());
+        search(state, true);
+    }
+
+    private CompletableFuture<Hint> search(CubeState state, boolean speculative) {
+        CubeState copy = new CubeState();
+        copy.copyFrom(state);
+        long key = copy.zobrist();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis - STORE_MILLIS);
+        Search search = new Search(!speculative);
+        Search running;
+        while ((running = searching.putIfAbsent(key, search)) != null) {
+            if (speculative || running.want()) return running.future;
+            searching.remove(key, running); // dropped just now; queue a fresh one
+        }
+        worker.execute(() -> {
+            try {
+                Hint h = cached(copy);
+                if (h == null && search.drop(latestSpeculation.get() != key)) {
+                    skipped.incrementAndGet(); // the player has moved on
+                } else if (h == null) {
+                    searches.incrementAndGet();
+                    long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()); // less any wait in the queue
+                    h = store(copy, solver.solveWithin(copy, Math.max(0, left)));
+                }
+                searching.remove(key, search);
+                if (h != null) search.future.complete(h);
+                else search.future.cancel(false);
+            } catch (RuntimeException e) {
+                searching.remove(key, search);
+                search.future.completeExceptionally(e);
+            }
+        });
+        return search.future;
+    }
+
+    /** Caches a hint for every state along {@code solution}; returns the first. */
+    private Hint store(CubeState start, List<Move> solution) {
+        CubeState s = new CubeState();
+        s.copyFrom(start);
+        Hint first = null;
+        synchronized (cache) {
+            for (int i = 0; i <= solution.size(); i++) {
+                Hint h = new Hint(i < solution.size() ? solution.get(i) : null, solution.size() - i);
+                if (first == null) first = h;
+                CubeState key = new CubeState();
+                key.copyFrom(s);
+                cache.put(key.zobrist(), new Cached(key, h));
+                if (i < solution.size()) s.apply(solution.get(i));
+            }
+        }
+        return first;
+    }
+
+    @Override
+    public void close() {
+        worker.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        return String.format("hints: %d from cache, %d searched, %d stale speculations skipped, %d cached",
+                hits.get(), searches.get(), skipped.get(), size);
+    }
+}
@@ -0,0 +1,129 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Replays {@link SolveJournal} files and checks every game in them: each game starts before
+ * its moves and ends after them, the claimed result matches the replayed state, and time
+ * never runs backwards from one game to the next. Files are checked in parallel, each
+ * streamed in constant memory.
+ *
+ * <p>Moves are replayed as bare facelet permutations; the solved check, which costs a full
+ * recount after slice and wide moves, runs once per game instead of once per move.
+ */
+public final class JournalVerifier {
+
+    /** Problems reported per file before the rest are only counted. */
+    private static final int MAX_PROBLEMS_PER_FILE = 20;
+
+    /** Totals over all files; {@code problems} lists the first few of each file. */
+    public record Report(long files, long bytes, long games, long solvedGames, long moves, long problemCount,
+                         List<String> problems) {
+
+        public boolean ok() { return problemCount == 0; }
+
+        @Override
+        public String toString() {
+            return String.format("%d files, %d bytes, %d games (%d solved), %d moves, %d problems",
+                    files, bytes, games, solvedGames, moves, problemCount);
+        }
+    }
+
+    private JournalVerifier() {
+    }
+
+    /** Verifies {@code files} on {@code threads} threads. */
+    public static Report verify(List<Path> files, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        try {
+            List<FileCheck> checks = pool.submit(() -> files.parallelStream().map(JournalVerifier::check).toList()).join();
+            long bytes = 0, games = 0, solved = 0, moves = 0, count = 0;
+            List<String> problems = new ArrayList<>();
+            for (FileCheck c : checks) {
+                bytes += c.bytes;
+                games += c.games;
+                solved += c.solved;
+                moves += c.moves;
+                count += c.problemCount;
+                problems.addAll(c.problems);
+            }
+            return new Report(files.size(), bytes, games, solved, moves, count, List.copyOf(problems));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static FileCheck check(Path file) {
+        FileCheck c = new FileCheck(file);
+        try {
+            c.bytes = SolveJournal.read(file, c);
+            if (c.inGame) c.problem("game started at " + c.gameStart + " has no end");
+        } catch (IOException e) {
+            c.problemCount++;
+            c.problems.add(e.getMessage()); // already names the file
+        }
+        return c;
+    }
+
+    /** The checks for one file, fed by {@link SolveJournal#read}. */
+    private static final class FileCheck implements SolveJournal.Visitor {
+        final Path file;
+        final CubeState state = new CubeState();
+        byte[] facelets = new byte[CubeState.FACELETS], scratch = new byte[CubeState.FACELETS];
+        final List<String> problems = new ArrayList<>();
+        long bytes, games, solved, moves, problemCount;
+        boolean inGame;
+        long gameStart, lastEnd = Long.MIN_VALUE;
+
+        FileCheck(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public void start(long epochMillis, CubeState start) {
+            if (inGame) problem("game started at " + gameStart + " has no end");
+            if (epochMillis < lastEnd) problem("game at " + epochMillis + " starts before the previous one ended");
+            for (int i = 0; i < CubeState.FACELETS; i++) facelets[i] = (byte) start.get(i);
+            inGame = true;
+            gameStart = epochMillis;
+            games++;
+        }
+
+        @Override
+        public void move(Move move, long epochMillis) {
+            moves++;
+            if (!inGame) {
+                problem("move " + move + " at " + epochMillis + " outside a game");
+                return;
+            }
+            byte[] perm = move.permutation(), src = facelets, dst = scratch;
+            for (int i = 0; i < CubeState.FACELETS; i++) dst[i] = src[perm[i]];
+            facelets = dst;
+            scratch = src;
+        }
+
+        @Override
+        public void end(long epochMillis, boolean claimedSolved) {
+            if (!inGame) {
+                problem("game end at " + epochMillis + " without a start");
+                return;
+            }
+            inGame = false;
+            lastEnd = epochMillis;
+            state.setAll(facelets);
+            if (state.isSolved()) solved++;
+            if (claimedSolved != state.isSolved()) {
+                problem("game started at " + gameStart + " claims " + (claimedSolved ? "solved" : "unsolved")
+                        + " but replays " + (state.isSolved() ? "solved" : "unsolved"));
+            }
+        }
+
+        void problem(String message) {
+            if (problemCount++ < MAX_PROBLEMS_PER_FILE) problems.add(file + ": " + message);
+        }
+    }
+}
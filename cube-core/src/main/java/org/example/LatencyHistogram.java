@@ -0,0 +1,93 @@
+package org.example;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts durations in log-linear buckets, in the manner of HdrHistogram: each power of two is
+ * split into {@value #SUB_BUCKETS} equal buckets, so any recorded value is known to within about
+ * 3% whatever its magnitude, from nanoseconds to hours, in a fixed 15 KB of counters.
+ *
+ * <p>Recording is a few shifts and one atomic increment, never blocks and never allocates, so it
+ * can stay on in hot paths and be called from any thread. Readings taken while other threads
+ * record are approximate but never torn.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String name() { return name; }
+
+    /** Records one duration; negative values count as zero. */
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(v));
+        total.incrementAndGet();
+        if (v > max.get()) max.accumulateAndGet(v, Math::max);
+    }
+
+    public long count() { return total.get(); }
+
+    public long maxNanos() { return max.get(); }
+
+    /**
+     * The smallest bucket bound that at least {@code percentile} percent of the recorded values
+     * fall under, or 0 when nothing has been recorded.
+     */
+    public long percentileNanos(double percentile) {
+        long n = total.get();
+        if (n == 0) return 0;
+        long wanted = Math.max(1, (long) Math.ceil(n * percentile / 100));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts.get(b);
+            if (seen >= wanted) return Math.min(upperBound(b), max.get());
+        }
+        return max.get();
+    }
+
+    /** Clears all counts; values recorded concurrently may land on either side. */
+    public void reset() {
+        for (int b = 0; b < BUCKETS; b++) counts.set(b, 0);
+        total.set(0);
+        max.set(0);
+    }
+
+    /** One line: count, median, tail percentiles and maximum, in microseconds. */
+    @Override
+    public String toString() {
+        return String.format("%s: n=%d p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus", name, count(),
+                micros(percentileNanos(50)), micros(percentileNanos(99)), micros(percentileNanos(99.9)),
+                micros(maxNanos()));
+    }
+
+    private static double micros(long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+
+    // values below SUB_BUCKETS have a bucket each; above, the top SUB_BITS + 1 bits pick one
+    private static int bucket(long v) {
+        if (v < SUB_BUCKETS) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (v >>> shift) - SUB_BUCKETS;
+    }
+
+    private static long upperBound(int b) {
+        if (b < SUB_BUCKETS) return b;
+        int shift = b / SUB_BUCKETS - 1;
+        long low = (long) (b % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return low + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,105 @@
+package org.example;
+
+/**
+ * Every move of standard notation: outer faces, middle slices and whole-cube rotations, each
+ * as a quarter turn, its inverse and a half turn. The facelet permutation of each move is
+ * generated once at class load, so half turns cost the same single gather as quarter turns.
+ */
+public enum Move {
+    // name, axis, turning layers (bit l + 1 for layer l), counter-clockwise quarter turns
+    U("U", CubeState.Y, 0b100, -1), U_PRIME("U'", CubeState.Y, 0b100, 1), U2("U2", CubeState.Y, 0b100, 2),
+    D("D", CubeState.Y, 0b001, 1), D_PRIME("D'", CubeState.Y, 0b001, -1), D2("D2", CubeState.Y, 0b001, 2),
+    R("R", CubeState.X, 0b100, -1), R_PRIME("R'", CubeState.X, 0b100, 1), R2("R2", CubeState.X, 0b100, 2),
+    L("L", CubeState.X, 0b001, 1), L_PRIME("L'", CubeState.X, 0b001, -1), L2("L2", CubeState.X, 0b001, 2),
+    F("F", CubeState.Z, 0b100, -1), F_PRIME("F'", CubeState.Z, 0b100, 1), F2("F2", CubeState.Z, 0b100, 2),
+    B("B", CubeState.Z, 0b001, 1), B_PRIME("B'", CubeState.Z, 0b001, -1), B2("B2", CubeState.Z, 0b001, 2),
+
+    // slices turn like the face they are named after: M like L, E like D, S like F
+    M("M", CubeState.X, 0b010, 1), M_PRIME("M'", CubeState.X, 0b010, -1), M2("M2", CubeState.X, 0b010, 2),
+    E("E", CubeState.Y, 0b010, 1), E_PRIME("E'", CubeState.Y, 0b010, -1), E2("E2", CubeState.Y, 0b010, 2),
+    S("S", CubeState.Z, 0b010, -1), S_PRIME("S'", CubeState.Z, 0b010, 1), S2("S2", CubeState.Z, 0b010, 2),
+
+    // whole-cube rotations turn like R, U and F
+    X("x", CubeState.X, 0b111, -1), X_PRIME("x'", CubeState.X, 0b111, 1), X2("x2", CubeState.X, 0b111, 2),
+    Y("y", CubeState.Y, 0b111, -1), Y_PRIME("y'", CubeState.Y, 0b111, 1), Y2("y2", CubeState.Y, 0b111, 2),
+    Z("z", CubeState.Z, 0b111, -1), Z_PRIME("z'", CubeState.Z, 0b111, 1), Z2("z2", CubeState.Z, 0b111, 2);
+
+    /** The 18 outer-face moves, the usual scramble and solver alphabet. */
+    public static final Move[] FACE_MOVES = {
+            U, U_PRIME, U2, D, D_PRIME, D2, R, R_PRIME, R2,
+            L, L_PRIME, L2, F, F_PRIME, F2, B, B_PRIME, B2
+    };
+
+    private static final Move[] VALUES = values();
+
+    private final String notation;
+    private final int axis;
+    private final int layers;
+    private final int quarters;
+    private final byte[] permutation;
+    private final byte[] moved;
+
+    Move(String notation, int axis, int layers, int quarters) {
+        this.notation = notation;
+        this.axis = axis;
+        this.layers = layers;
+        this.quarters = quarters;
+        this.permutation = CubeState.permutation(axis, layers, quarters);
+        this.moved = CubeState.moved(permutation);
+    }
+
+    public String notation() { return notation; }
+    public int axis() { return axis; }
+
+    /** Layer mask along the axis: bit {@code l + 1} is set when layer {@code l} turns. */
+    public int layers() { return layers; }
+
+    /** Counter-clockwise quarter turns about the axis: 1, -1 or 2. */
+    public int quarters() { return quarters; }
+
+    public boolean isHalfTurn() { return quarters == 2; }
+
+    /** Returns the move that undoes this one. */
+    public Move inverse() {
+        int base = ordinal() - ordinal() % 3;
+        return quarters == 2 ? this : VALUES[base + (ordinal() % 3 == 0 ? 1 : 0)];
+    }
+
+    /** True when both moves turn exactly the same layers, e.g. R and R2. */
+    public boolean sameLayers(Move other) {
+        return axis == other.axis && layers == other.layers;
+    }
+
+    /** True for slices and rotations, which carry face centers along. */
+    public boolean movesCenters() { return (layers & 0b010) != 0; }
+
+    byte[] permutation() { return permutation; }
+
+    /** Facelets this move changes, in ascending order. */
+    byte[] moved() { return moved; }
+
+    /**
+     * Looks up the move turning {@code layers} about {@code axis} by {@code quarters}
+     * counter-clockwise quarter turns, taken mod 4; null for a whole turn or no such move.
+     */
+    public static Move of(int axis, int layers, int quarters) {
+        int q = quarters & 3;
+        if (q == 0) return null;
+        int wanted = q == 3 ? -1 : q;
+        for (Move m : VALUES) {
+            if (m.axis == axis && m.layers == layers && m.quarters == wanted) return m;
+        }
+        return null;
+    }
+
+    /** Looks up a move by its notation, such as {@code "R'"} or {@code "x2"}. */
+    public static Move parse(String notation) {
+        for (Move m : VALUES) {
+            if (m.notation.equals(notation)) return m;
+        }
+        throw new IllegalArgumentException("Unknown move: " + notation);
+    }
+
+    @Override
+    public String toString() { return notation; }
+}
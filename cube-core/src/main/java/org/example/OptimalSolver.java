@@ -0,0 +1,249 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finds shortest solutions in the face-turn metric with IDA*, using the exact corner and edge
+ * distances in {@link PatternDatabase} as the lower bound. States up to 13 moves deep solve
+ * within a second or so; each further move costs roughly ten times more, so a full scramble
+ * (17 or 18 moves) can take hours and callers should run it in the background.
+ *
+ * <p>Deep iterations are split on the first {@value #SPLIT_DEPTH} moves into independent
+ * subtrees that run on a {@link ForkJoinPool}; all workers share the bound and stop as soon as
+ * one of them finds a solution.
+ *
+ * <p>A solver instance only reads its tables and can be shared between threads.
+ */
+public final class OptimalSolver {
+
+    public static final int MAX_LENGTH = 20; // God's number in the face-turn metric
+
+    // shallower iterations take milliseconds and are not worth a pool
+    private static final int PARALLEL_BOUND = 10;
+    private static final int SPLIT_DEPTH = 3;
+
+    // table move index -> move, in U, U2, U', R, R2, R' ... order
+    private static final Move[] MOVES = {
+            Move.U, Move.U2, Move.U_PRIME, Move.R, Move.R2, Move.R_PRIME,
+            Move.F, Move.F2, Move.F_PRIME, Move.D, Move.D2, Move.D_PRIME,
+            Move.L, Move.L2, Move.L_PRIME, Move.B, Move.B2, Move.B_PRIME
+    };
+
+    private final PatternDatabase db;
+    private final int threads;
+
+    private OptimalSolver(PatternDatabase db, int threads) {
+        this.db = db;
+        this.threads = threads;
+    }
+
+    /** Loads the solver with its database in the default location, building it on first use. */
+    public static OptimalSolver load() throws IOException {
+        return load(PatternDatabase.defaultPath());
+    }
+
+    public static OptimalSolver load(Path databaseFile) throws IOException {
+        return new OptimalSolver(PatternDatabase.load(databaseFile), Runtime.getRuntime().availableProcessors());
+    }
+
+    /** A solver sharing this one's database that searches on {@code threads} threads. */
+    public OptimalSolver withThreads(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be positive: " + threads);
+        return new OptimalSolver(db, threads);
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    /** Returns a shortest sequence of face moves that solves {@code state} relative to its centers. */
+    public List<Move> solve(CubeState state) {
+        return search(state).moves();
+    }
+
+    /** Number of face moves in a shortest solution of {@code state}. */
+    public int distance(CubeState state) {
+        return search(state).moves().size();
+    }
+
+    /** Solves {@code state} and reports how much work each worker thread did. */
+    public Result search(CubeState state) {
+        long start = System.nanoTime();
+        CubieCube cube = CubieCube.fromFacelets(state);
+        byte[] corners = new byte[CubieCube.CORNERS], edges = new byte[CubieCube.EDGES];
+        for (int i = 0; i < CubieCube.CORNERS; i++) corners[cube.cp[i]] = (byte) (i * 3 + cube.co[i]);
+        for (int i = 0; i < CubieCube.EDGES; i++) edges[cube.ep[i]] = (byte) (i * 2 + cube.eo[i]);
+
+        Shared shared = new Shared();
+        ForkJoinPool pool = null;
+        try {
+            for (int bound = db.heuristic(corners, edges, MAX_LENGTH); shared.solution == null; bound++) {
+                if (bound == 0) {
+                    shared.solution = new int[0];
+                } else if (threads == 1 || bound < PARALLEL_BOUND) {
+                    Search s = new Search(corners, edges, shared);
+                    s.search(0, bound);
+                    shared.count(s.nodes);
+                } else {
+                    if (pool == null) pool = new ForkJoinPool(threads);
+                    pool.invoke(new Subtree(corners, edges, new int[0], bound, shared));
+                }
+            }
+        } finally {
+            if (pool != null) pool.shutdown();
+        }
+
+        List<Move> moves = new ArrayList<>(shared.solution.length);
+        for (int m : shared.solution) moves.add(MOVES[m]);
+        long[] workerNodes = shared.nodes.values().stream().mapToLong(LongAdder::sum).toArray();
+        return new Result(moves, workerNodes, System.nanoTime() - start);
+    }
+
+    /**
+     * A solution with the nodes each worker thread expanded, in no particular order, and the
+     * wall-clock time of the whole search.
+     */
+    public record Result(List<Move> moves, long[] workerNodes, long nanos) {
+
+        public long nodes() {
+            return Arrays.stream(workerNodes).sum();
+        }
+
+        public double nodesPerSecond(int worker) {
+            return workerNodes[worker] * 1e9 / Math.max(1, nanos);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(moves.size()).append(" moves, ").append(nodes()).append(" nodes in ")
+                    .append(nanos / 1_000_000).append(" ms");
+            for (int w = 0; w < workerNodes.length; w++) {
+                sb.append(String.format("%n  worker %d: %.0f nodes/s", w, nodesPerSecond(w)));
+            }
+            return sb.toString();
+        }
+    }
+
+    /** State shared by every worker of one solve. */
+    private static final class Shared {
+        volatile int[] solution;
+        final Map<Thread, LongAdder> nodes = new ConcurrentHashMap<>();
+
+        synchronized void offer(int[] moves) {
+            if (solution == null) solution = moves;
+        }
+
+        void count(long n) {
+            nodes.computeIfAbsent(Thread.currentThread(), t -> new LongAdder()).add(n);
+        }
+    }
+
+    /** The subtree below a fixed move prefix, split further until {@link #SPLIT_DEPTH}. */
+    private final class Subtree extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] corners, edges;
+        private final int[] prefix;
+        private final int bound;
+        private final transient Shared shared; // tasks are never serialized
+
+        Subtree(byte[] corners, byte[] edges, int[] prefix, int bound, Shared shared) {
+            this.corners = corners;
+            this.edges = edges;
+            this.prefix = prefix;
+            this.bound = bound;
+            this.shared = shared;
+        }
+
+        @Override
+        protected void compute() {
+            if (shared.solution != null) return;
+            if (prefix.length < SPLIT_DEPTH) {
+                List<Subtree> children = new ArrayList<>(PatternDatabase.N_MOVES);
+                for (int m = 0; m < PatternDatabase.N_MOVES; m++) {
+                    if (prefix.length > 0 && redundant(prefix[prefix.length - 1], m)) continue;
+                    int[] next = Arrays.copyOf(prefix, prefix.length + 1);
+                    next[prefix.length] = m;
+                    children.add(new Subtree(corners, edges, next, bound, shared));
+                }
+                invokeAll(children);
+                return;
+            }
+            Search s = new Search(corners, edges, shared);
+            int togo = s.replay(prefix, bound);
+            if (togo > 0) s.search(prefix.length, togo);
+            shared.count(s.nodes);
+        }
+    }
+
+    /** One depth-first pass; piece locations are kept per depth so a move never has to be undone. */
+    private final class Search {
+        private final byte[][] corners = new byte[MAX_LENGTH + 1][CubieCube.CORNERS];
+        private final byte[][] edges = new byte[MAX_LENGTH + 1][CubieCube.EDGES];
+        private final int[] moves = new int[MAX_LENGTH];
+        private final Shared shared;
+        long nodes;
+
+        Search(byte[] startCorners, byte[] startEdges, Shared shared) {
+            System.arraycopy(startCorners, 0, corners[0], 0, CubieCube.CORNERS);
+            System.arraycopy(startEdges, 0, edges[0], 0, CubieCube.EDGES);
+            this.shared = shared;
+        }
+
+        /**
+         * Plays {@code prefix} and returns the moves left within {@code bound}, or 0 if the
+         * bound already rules this prefix out or it completes a solution.
+         */
+        int replay(int[] prefix, int bound) {
+            for (int depth = 0; depth < prefix.length; depth++) {
+                if (!step(depth, prefix[depth], bound - depth - 1)) return 0;
+            }
+            int togo = bound - prefix.length;
+            if (togo == 0) shared.offer(Arrays.copyOf(moves, bound));
+            return togo;
+        }
+
+        boolean search(int depth, int togo) {
+            if (shared.solution != null) return false;
+            for (int m = 0; m < PatternDatabase.N_MOVES; m++) {
+                if (depth > 0 && redundant(moves[depth - 1], m)) continue;
+                if (!step(depth, m, togo - 1)) continue;
+                // a bound of zero is only met by the solved cube
+                if (togo == 1) {
+                    shared.offer(Arrays.copyOf(moves, depth + 1));
+                    return true;
+                }
+                if (search(depth + 1, togo - 1)) return true;
+            }
+            return false;
+        }
+
+        /** Applies move {@code m} at {@code depth}; false if the result is more than {@code togo} from solved. */
+        private boolean step(int depth, int m, int togo) {
+            nodes++;
+            byte[] c = corners[depth], e = edges[depth];
+            byte[] nc = corners[depth + 1], ne = edges[depth + 1];
+            byte[] cornerMove = PatternDatabase.CORNER_MOVE[m], edgeMove = PatternDatabase.EDGE_MOVE[m];
+            for (int j = 0; j < CubieCube.CORNERS; j++) nc[j] = cornerMove[c[j]];
+            for (int j = 0; j < CubieCube.EDGES; j++) ne[j] = edgeMove[e[j]];
+            moves[depth] = m;
+            return db.heuristic(nc, ne, togo) <= togo;
+        }
+    }
+
+    /** Same face twice in a row, or opposite faces in the non-canonical order (D before U). */
+    private static boolean redundant(int prev, int m) {
+        int face = m / 3, last = prev / 3;
+        return face == last || face == last - 3;
+    }
+}
@@ -0,0 +1,351 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Pattern databases for {@link OptimalSolver}: exact distances for the corners and for six of
+ * the edges, packed at 4 bits per entry in a memory-mapped file, so they live off the Java heap
+ * and are built only once.
+ *
+ * <p>The corner table keeps one row per symmetry class of the corner permutation under all 48
+ * cube symmetries, about 2.2M entries instead of 88M. A single six-edge table (UR, UF, UL, UB,
+ * FR, FL) also serves the other six edges, which the x2 symmetry carries onto the first six.
+ *
+ * <p>The search tracks pieces by location: a corner as {@code slot * 3 + twist}, an edge as
+ * {@code slot * 2 + flip}, indexed by piece. Moves are numbered U, U2, U', R ... B' as in
+ * {@link TwoPhaseTables}.
+ */
+final class PatternDatabase {
+
+    static final int N_MOVES = 18;
+    static final int N_TWIST = 2187;
+    static final int N_CORNER_PERM = 40320;
+    static final int N_EDGE_PERM = 12 * 11 * 10 * 9 * 8 * 7;
+    static final int N_EDGE = N_EDGE_PERM * 64;
+
+    /** The edges in the stored half. */
+    static final int[] EDGE_SET = {0, 1, 2, 3, 8, 9};
+    /** The other half, ordered so that x2 carries {@code EDGE_SET_X2[k]} onto {@code EDGE_SET[k]}. */
+    static final int[] EDGE_SET_X2 = new int[EDGE_SET.length];
+
+    static final byte[][] CORNER_MOVE = new byte[N_MOVES][24];
+    static final byte[][] EDGE_MOVE = new byte[N_MOVES][24];
+
+    // corner permutation symmetry classes, by permutation rank
+    static final int N_CORNER_CLASSES;
+    private static final short[] CORNER_CLASS = new short[N_CORNER_PERM];
+    private static final long[] CORNER_SYMS = new long[N_CORNER_PERM]; // symmetries reaching the representative
+    private static final int[] CLASS_REP;
+
+    private static final int MAGIC = 0x52434f50; // "RCOP"
+    private static final int VERSION = 1;
+    private static final int HEADER = 16;
+    private static final int UNSEEN = 15;
+
+    static {
+        Symmetry x2 = Symmetry.ALL[Symmetry.X2];
+        for (int k = 0; k < EDGE_SET.length; k++) EDGE_SET_X2[k] = x2.edgeSlot(EDGE_SET[k]);
+
+        for (int face = 0; face < 6; face++) {
+            CubieCube turn = CubieCube.FACE_TURNS[face];
+            byte[] corner = new byte[24], edge = new byte[24];
+            for (int k = 0; k < CubieCube.CORNERS; k++) {
+                for (int t = 0; t < 3; t++) corner[turn.cp[k] * 3 + t] = (byte) (k * 3 + (t + turn.co[k]) % 3);
+            }
+            for (int k = 0; k < CubieCube.EDGES; k++) {
+                for (int f = 0; f < 2; f++) edge[turn.ep[k] * 2 + f] = (byte) (k * 2 + (f + turn.eo[k]) % 2);
+            }
+            for (int power = 0; power < 3; power++) {
+                int m = face * 3 + power;
+                for (int loc = 0; loc < 24; loc++) {
+                    CORNER_MOVE[m][loc] = power == 0 ? corner[loc] : corner[CORNER_MOVE[m - 1][loc]];
+                    EDGE_MOVE[m][loc] = power == 0 ? edge[loc] : edge[EDGE_MOVE[m - 1][loc]];
+                }
+            }
+        }
+
+        int[] reps = new int[N_CORNER_PERM];
+        int classes = 0;
+        int[] slots = new int[8], conj = new int[8];
+        for (int p = 0; p < N_CORNER_PERM; p++) {
+            unrankCorners(p, slots);
+            int min = Integer.MAX_VALUE;
+            long syms = 0;
+            for (Symmetry g : Symmetry.ALL) {
+                for (int j = 0; j < 8; j++) conj[g.cornerSlot(j)] = g.cornerSlot(slots[j]);
+                int q = rankCorners(conj);
+                if (q < min) {
+                    min = q;
+                    syms = 0;
+                }
+                if (q == min) syms |= 1L << g.index;
+            }
+            if (min == p) reps[classes++] = p;
+            CORNER_CLASS[p] = min == p ? (short) (classes - 1) : CORNER_CLASS[min];
+            CORNER_SYMS[p] = syms;
+        }
+        N_CORNER_CLASSES = classes;
+        CLASS_REP = java.util.Arrays.copyOf(reps, classes);
+    }
+
+    private final ByteBuffer corners;
+    private final ByteBuffer edges;
+
+    private PatternDatabase(ByteBuffer file) {
+        corners = file.slice(HEADER, nibbles(cornerEntries()));
+        edges = file.slice(HEADER + nibbles(cornerEntries()), nibbles(N_EDGE));
+    }
+
+    /** Maps the database at {@code path}, generating and writing it first if needed. */
+    static PatternDatabase load(Path path) throws IOException {
+        if (!isValid(path)) write(path);
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new PatternDatabase(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    static Path defaultPath() {
+        return TwoPhaseTables.defaultPath().resolveSibling("optimal.pdb");
+    }
+
+    /**
+     * Admissible lower bound on the distance to solved: the largest of the corner table and
+     * the two edge-half lookups. Stops early once the bound exceeds {@code cutoff}.
+     */
+    int heuristic(byte[] cornerLoc, byte[] edgeLoc, int cutoff) {
+        int h = get(corners, cornerIndex(cornerLoc));
+        if (h > cutoff) return h;
+        h = Math.max(h, get(edges, edgeIndex(edgeLoc)));
+        if (h > cutoff) return h;
+        return Math.max(h, get(edges, edgeIndexX2(edgeLoc)));
+    }
+
+    // ------------------------------------------------------------------
+    // Indexing
+
+    private static int cornerEntries() {
+        return N_CORNER_CLASSES * N_TWIST;
+    }
+
+    static int cornerIndex(byte[] loc) {
+        int used = 0, p = 0;
+        for (int j = 0; j < 8; j++) {
+            int slot = loc[j] / 3;
+            p = p * (8 - j) + slot - Integer.bitCount(used & ((1 << slot) - 1));
+            used |= 1 << slot;
+        }
+        return cornerIndex(loc, p, Long.numberOfTrailingZeros(CORNER_SYMS[p]));
+    }
+
+    /** Index of the corners conjugated by symmetry {@code g}, which must reach the class representative. */
+    private static int cornerIndex(byte[] loc, int perm, int g) {
+        short[] conj = Symmetry.ALL[g].corner;
+        int twist = 0;
+        for (int j = 0; j < 8; j++) {
+            int e = conj[(loc[j] / 3 * 8 + j) * 3 + loc[j] % 3] % 24;
+            int piece = e / 3;
+            if (piece < 7) twist += e % 3 * POW3[piece];
+        }
+        return CORNER_CLASS[perm] * N_TWIST + twist;
+    }
+
+    static int edgeIndex(byte[] loc) {
+        int used = 0, r = 0, flips = 0;
+        for (int k = 0; k < 6; k++) {
+            int l = loc[EDGE_SET[k]], slot = l >> 1;
+            r = r * (12 - k) + slot - Integer.bitCount(used & ((1 << slot) - 1));
+            used |= 1 << slot;
+            flips |= (l & 1) << k;
+        }
+        return r * 64 + flips;
+    }
+
+    /** Index of the other edge half, read through the x2 conjugation. */
+    static int edgeIndexX2(byte[] loc) {
+        short[] conj = Symmetry.ALL[Symmetry.X2].edge;
+        int used = 0, r = 0, flips = 0;
+        for (int k = 0; k < 6; k++) {
+            int piece = EDGE_SET_X2[k], l = loc[piece];
+            int e = conj[((l >> 1) * 12 + piece) * 2 + (l & 1)];
+            int slot = e / 24;
+            r = r * (12 - k) + slot - Integer.bitCount(used & ((1 << slot) - 1));
+            used |= 1 << slot;
+            flips |= (e & 1) << k;
+        }
+        return r * 64 + flips;
+    }
+
+    private static final int[] POW3 = {1, 3, 9, 27, 81, 243, 729};
+
+    private static int rankCorners(int[] slots) {
+        int used = 0, p = 0;
+        for (int j = 0; j < 8; j++) {
+            p = p * (8 - j) + slots[j] - Integer.bitCount(used & ((1 << slots[j]) - 1));
+            used |= 1 << slots[j];
+        }
+        return p;
+    }
+
+    private static void unrankCorners(int p, int[] slots) {
+        unrank(p, slots, 8, 8);
+    }
+
+    /** Inverse of the mixed-radix ranks above: {@code n} distinct values out of {@code range}. */
+    private static void unrank(int r, int[] out, int n, int range) {
+        int[] digits = new int[n];
+        for (int k = n - 1; k >= 0; k--) {
+            digits[k] = r % (range - k);
+            r /= range - k;
+        }
+        int used = 0;
+        for (int k = 0; k < n; k++) {
+            int v = -1;
+            for (int c = digits[k]; c >= 0; c--) {
+                v++;
+                while ((used >> v & 1) != 0) v++;
+            }
+            out[k] = v;
+            used |= 1 << v;
+        }
+    }
+
+    /** Locations of solved pieces. */
+    private static byte[] home(int pieces, int orientations) {
+        byte[] loc = new byte[pieces];
+        for (int i = 0; i < pieces; i++) loc[i] = (byte) (i * orientations);
+        return loc;
+    }
+
+    private static int get(ByteBuffer table, int index) {
+        return (table.get(index >>> 1) >>> ((index & 1) << 2)) & 0x0f;
+    }
+
+    private static void set(ByteBuffer table, int index, int value) {
+        int b = table.get(index >>> 1), shift = (index & 1) << 2;
+        table.put(index >>> 1, (byte) ((b & ~(0x0f << shift)) | value << shift));
+    }
+
+    private static int nibbles(int entries) {
+        return (entries + 1) / 2;
+    }
+
+    // ------------------------------------------------------------------
+    // File and generation
+
+    private static long fileSize() {
+        return HEADER + (long) nibbles(cornerEntries()) + nibbles(N_EDGE);
+    }
+
+    private static boolean isValid(Path path) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) != fileSize()) return false;
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            ch.read(header, 0);
+            return header.getInt(0) == MAGIC && header.getInt(4) == VERSION
+                    && header.getInt(8) == N_CORNER_CLASSES;
+        }
+    }
+
+    /** Builds both tables straight into a mapped temporary file, then moves it into place. */
+    private static void write(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), "optimal", ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = ch.map(FileChannel.MapMode.READ_WRITE, 0, fileSize());
+            out.order(ByteOrder.LITTLE_ENDIAN).putInt(MAGIC).putInt(VERSION).putInt(N_CORNER_CLASSES);
+            ByteBuffer corners = out.slice(HEADER, nibbles(cornerEntries()));
+            ByteBuffer edges = out.slice(HEADER + nibbles(cornerEntries()), nibbles(N_EDGE));
+            fillCorners(corners);
+            fillEdges(edges);
+            out.force();
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void fillCorners(ByteBuffer table) {
+        int n = cornerEntries();
+        for (int i = 0; i < nibbles(n); i++) table.put(i, (byte) -1);
+        set(table, cornerIndex(home(CubieCube.CORNERS, 3)), 0);
+        int[] slots = new int[8];
+        byte[] loc = new byte[8], next = new byte[8];
+        for (int depth = 0; ; depth++) {
+            int found = 0;
+            for (int i = 0; i < n; i++) {
+                if (get(table, i) != depth) continue;
+                unrankCorners(CLASS_REP[i / N_TWIST], slots);
+                int twist = i % N_TWIST, sum = 0;
+                for (int j = 0; j < 7; j++) {
+                    int t = twist / POW3[j] % 3;
+                    loc[j] = (byte) (slots[j] * 3 + t);
+                    sum += t;
+                }
+                loc[7] = (byte) (slots[7] * 3 + (3 - sum % 3) % 3);
+                for (int m = 0; m < N_MOVES; m++) {
+                    int used = 0, p = 0;
+                    for (int j = 0; j < 8; j++) {
+                        next[j] = CORNER_MOVE[m][loc[j]];
+                        int slot = next[j] / 3;
+                        p = p * (8 - j) + slot - Integer.bitCount(used & ((1 << slot) - 1));
+                        used |= 1 << slot;
+                    }
+                    // a representative with self-symmetries has several rows; fill them all
+                    for (long syms = CORNER_SYMS[p]; syms != 0; syms &= syms - 1) {
+                        int idx = cornerIndex(next, p, Long.numberOfTrailingZeros(syms));
+                        if (get(table, idx) == UNSEEN) {
+                            set(table, idx, depth + 1);
+                            found++;
+                        }
+                    }
+                }
+            }
+            if (found == 0) return;
+        }
+    }
+
+    /**
+     * Breadth-first fill of the six-edge table. Early depths expand the frontier; once the
+     * frontier outgrows the unseen entries it is cheaper to look back from each unseen entry
+     * for a neighbour at the current depth.
+     */
+    private static void fillEdges(ByteBuffer table) {
+        for (int i = 0; i < nibbles(N_EDGE); i++) table.put(i, (byte) -1);
+        set(table, edgeIndex(home(CubieCube.EDGES, 2)), 0);
+        int[] slots = new int[6];
+        byte[] loc = new byte[12], next = new byte[12];
+        long frontier = 1, unseen = N_EDGE - 1L;
+        for (int depth = 0; unseen > 0 && frontier > 0; depth++) {
+            boolean backward = frontier > unseen;
+            long found = 0;
+            for (int i = 0; i < N_EDGE; i++) {
+                int d = get(table, i);
+                if (backward ? d != UNSEEN : d != depth) continue;
+                unrank(i >>> 6, slots, 6, 12);
+                for (int k = 0; k < 6; k++) loc[EDGE_SET[k]] = (byte) (slots[k] * 2 + (i >>> k & 1));
+                for (int m = 0; m < N_MOVES; m++) {
+                    for (int e : EDGE_SET) next[e] = EDGE_MOVE[m][loc[e]];
+                    int idx = edgeIndex(next);
+                    if (backward) {
+                        if (get(table, idx) == depth) {
+                            set(table, i, depth + 1);
+                            found++;
+                            break;
+                        }
+                    } else if (get(table, idx) == UNSEEN) {
+                        set(table, idx, depth + 1);
+                        found++;
+                    }
+                }
+            }
+            frontier = found;
+            unseen -= found;
+        }
+    }
+}
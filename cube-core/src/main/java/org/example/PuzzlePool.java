@@ -0,0 +1,283 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Ready-made puzzles for each difficulty tier, graded by how many moves they really take.
+ * A low-priority producer thread keeps every tier topped up to a fixed capacity, so starting a
+ * game takes a puzzle from a queue instead of generating one. The pool is saved to a small
+ * file whenever it fills up, on {@link #save} and on {@link #close}, and reloaded on the next
+ * run.
+ *
+ * <p>Easy tiers are random walks kept only if their exact distance, found with
+ * {@link OptimalSolver}, falls in the tier's band; the scramble is then the inverse of that
+ * optimal solution, so its length is the puzzle's distance. Hard puzzles are uniformly random
+ * states, whose optimal distance takes far too long to find (they sit at 17 or 18 moves), so
+ * they are graded by a two-phase search given {@value #HARD_SEARCH_MILLIS} ms in all: an upper
+ * bound usually within two moves of optimal. A state it finds no solution for in time is skipped.
+ */
+public final class PuzzlePool implements AutoCloseable {
+
+    private static final int MAGIC = 0x52435050; // "RCPP"
+    private static final int VERSION = 1;
+    private static final long HARD_SEARCH_MILLIS = 250;
+    private static final long CLOSE_WAIT_MILLIS = 1000;
+
+    /** Difficulty tiers, each a band of solution lengths. */
+    public enum Tier {
+        BEGINNER(3, 5, true), INTERMEDIATE(9, 12, true), HARD(17, TwoPhaseSolver.DEFAULT_MAX_LENGTH, false);
+
+        public final int minLength, maxLength;
+        /** True when lengths are optimal, false when they are two-phase upper bounds. */
+        public final boolean optimal;
+
+        Tier(int minLength, int maxLength, boolean optimal) {
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+            this.optimal = optimal;
+        }
+
+        /** The tier named like the game's difficulties, case-insensitively; null if none is. */
+        public static Tier of(String difficulty) {
+            for (Tier t : values()) {
+                if (t.name().equalsIgnoreCase(difficulty)) return t;
+            }
+            return null;
+        }
+    }
+
+    /** A graded puzzle: the scramble that sets it up, as long as its solution. */
+    public record Puzzle(Tier tier, List<Move> scramble) {
+        public Puzzle {
+            scramble = List.copyOf(scramble);
+        }
+
+        public int length() { return scramble.size(); }
+    }
+
+    private final Path file;
+    private final int capacity;
+    private final Map<Tier, ArrayDeque<Puzzle>> pools = new EnumMap<>(Tier.class);
+    private final Object saving = new Object(); // one save at a time
+    private boolean dirty; // changed since the last save
+    private Thread producer;
+
+    private PuzzlePool(Path file, int capacity) {
+        this.file = file;
+        this.capacity = capacity;
+        for (Tier t : Tier.values()) pools.put(t, new ArrayDeque<>(capacity));
+    }
+
+    /**
+     * Opens the pool saved in {@code file}, holding up to {@code capacity} puzzles per tier. A
+     * missing or unreadable file gives an empty pool. Nothing is generated until
+     * {@link #startProducer}.
+     */
+    public static PuzzlePool open(Path file, int capacity) {
+        PuzzlePool pool = new PuzzlePool(file, capacity);
+        try {
+            if (Files.isRegularFile(file)) pool.load(ByteBuffer.wrap(Files.readAllBytes(file)));
+        } catch (IOException e) {
+            System.err.println("Puzzle pool " + file + " not loaded: " + e.getMessage());
+            pool.pools.values().forEach(ArrayDeque::clear);
+        }
+        return pool;
+    }
+
+    /** The default pool file, next to the solver tables. */
+    public static Path defaultPath() {
+        return TwoPhaseTables.defaultPath().resolveSibling("puzzles.rcp");
+    }
+
+    /**
+     * Takes the next puzzle of {@code tier}, or returns null at once if the tier has run dry.
+     * Never waits for the producer.
+     */
+    public synchronized Puzzle take(Tier tier) {
+        Puzzle p = pools.get(tier).poll();
+        if (p != null) {
+            dirty = true;
+            notifyAll(); // room to refill
+        }
+        return p;
+    }
+
+    public synchronized int size(Tier tier) {
+        return pools.get(tier).size();
+    }
+
+    /**
+     * Starts the producer thread, which refills whichever tier is emptiest and sleeps while
+     * every tier is full. The producer asks {@code optimal} for the optimal solver the first
+     * time an easy tier needs a puzzle and waits for it there, so this returns at once and a
+     * caller that also grades with the optimal solver can share one pattern database.
+     */
+    public synchronized void startProducer(TwoPhaseSolver twoPhase, Supplier<OptimalSolver> optimal) {
+        if (producer != null) return;
+        producer = new Thread(() -> produce(twoPhase, optimal), "puzzle-producer");
+        producer.setDaemon(true);
+        producer.setPriority(Thread.MIN_PRIORITY);
+        producer.start();
+    }
+
+    /** Stops the producer and saves the pool. */
+    @Override
+    public void close() throws IOException {
+        Thread t;
+        synchronized (this) {
+            t = producer;
+        }
+        if (t != null) {
+            t.interrupt();
+            try {
+                t.join(CLOSE_WAIT_MILLIS); // a search in progress finishes first; a database build does not
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        save();
+    }
+
+    /**
+     * Writes the pool if it changed, through a temporary file so a crash never leaves half of
+     * one. The pool is only locked while it is encoded, so a take never waits for the disk.
+     */
+    public void save() throws IOException {
+        synchronized (saving) {
+            ByteBuffer out;
+            synchronized (this) {
+                if (!dirty) return;
+                int bytes = 5;
+                for (ArrayDeque<Puzzle> q : pools.values()) {
+                    for (Puzzle p : q) bytes += 1 + CubeCodec.varLongSize(p.length()) + p.length();
+                }
+                out = ByteBuffer.allocate(bytes);
+                out.putInt(MAGIC).put((byte) VERSION);
+                for (ArrayDeque<Puzzle> q : pools.values()) {
+                    for (Puzzle p : q) {
+                        out.put((byte) p.tier().ordinal());
+                        CubeCodec.putVarLong(out, p.length());
+                        for (Move m : p.scramble()) CubeCodec.putMove(out, m);
+                    }
+                }
+                dirty = false;
+            }
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(tmp, out.array());
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder("puzzles:");
+        for (Tier t : Tier.values()) sb.append(' ').append(t.name().toLowerCase(Locale.ROOT)).append(' ').append(pools.get(t).size());
+        return sb.append(" of ").append(capacity).toString();
+    }
+
+    // ------------------------------------------------------------------
+    // Producer
+
+    private void produce(TwoPhaseSolver twoPhase, Supplier<OptimalSolver> optimalSource) {
+        SplittableRandom rng = new SplittableRandom();
+        OptimalSolver optimal = null;
+        try {
+            while (true) {
+                Tier tier = emptiest();
+                if (tier == null) continue; // saved and woken by a take
+                if (tier.optimal && optimal == null) optimal = optimalSource.get().withThreads(1);
+                Puzzle p = tier.optimal ? graded(tier, optimal, rng) : hard(twoPhase, rng);
+                if (p == null) continue;
+                synchronized (this) {
+                    pools.get(tier).add(p);
+                    dirty = true;
+                }
+            }
+        } catch (InterruptedException e) {
+            // closing
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Puzzle producer stopped: " + e);
+        }
+    }
+
+    /**
+     * The tier with the fewest puzzles. When every tier is full, saves the
+     * pool, waits for a take and returns null.
+     */
+    private Tier emptiest() throws InterruptedException, IOException {
+        synchronized (this) {
+            Tier emptiest = null;
+            for (Tier t : Tier.values()) {
+                int n = pools.get(t).size();
+                if (n < capacity && (emptiest == null || n < pools.get(emptiest).size())) emptiest = t;
+            }
+            if (emptiest != null) return emptiest;
+        }
+        save();
+        synchronized (this) {
+            while (isFull()) wait();
+        }
+        return null;
+    }
+
+    private boolean isFull() {
+        for (ArrayDeque<Puzzle> q : pools.values()) {
+            if (q.size() < capacity) return false;
+        }
+        return true;
+    }
+
+    /** A random walk of a length in the tier's band, kept if its optimal distance is too. */
+    private static Puzzle graded(Tier tier, OptimalSolver optimal, SplittableRandom rng) throws InterruptedException {
+        int walk = tier.minLength + rng.nextInt(tier.maxLength - tier.minLength + 1);
+        CubeState state = new CubeState();
+        for (Move m : ScrambleGenerator.randomMoves(rng, walk)) state.apply(m);
+        List<Move> solution = optimal.solve(state);
+        if (Thread.interrupted()) throw new InterruptedException();
+        if (solution.size() < tier.minLength || solution.size() > tier.maxLength) return null;
+        return new Puzzle(tier, Algorithm.of(solution).inverse().moves());
+    }
+
+    private static Puzzle hard(TwoPhaseSolver twoPhase, SplittableRandom rng) throws InterruptedException {
+        CubeState state = CubieCube.random(rng).toFacelets();
+        List<Move> solution = twoPhase.solve(state, Tier.HARD.maxLength, HARD_SEARCH_MILLIS);
+        if (Thread.interrupted()) throw new InterruptedException();
+        if (solution == null || solution.size() < Tier.HARD.minLength) return null;
+        return new Puzzle(Tier.HARD, Algorithm.of(solution).inverse().moves());
+    }
+
+    // ------------------------------------------------------------------
+    // File: magic, version, then per puzzle its tier, its length and one byte per move
+
+    private void load(ByteBuffer in) throws IOException {
+        try {
+            if (in.getInt() != MAGIC || in.get() != VERSION) throw new IOException("not a puzzle pool");
+            Tier[] tiers = Tier.values();
+            while (in.hasRemaining()) {
+                int t = in.get();
+                if (t < 0 || t >= tiers.length) throw new IOException("bad tier " + t);
+                int n = CubeCodec.getVarInt(in);
+                if (n > tiers[t].maxLength) throw new IOException("bad puzzle length " + n);
+                Move[] moves = new Move[n];
+                for (int i = 0; i < n; i++) moves[i] = CubeCodec.getMove(in);
+                ArrayDeque<Puzzle> q = pools.get(tiers[t]);
+                if (q.size() < capacity) q.add(new Puzzle(tiers[t], List.of(moves)));
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("corrupt puzzle pool", e);
+        }
+    }
+}
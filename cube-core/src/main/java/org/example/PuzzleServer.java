@@ -0,0 +1,376 @@
+package org.example;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Headless puzzle service over HTTP, for backends that hand out daily puzzles and check
+ * players' answers without the 3D front end. Three endpoints, each answering with one JSON
+ * object and taking its parameters from the query string or a form-encoded POST body:
+ * <ul>
+ *   <li>{@code /scramble?difficulty=D&seed=S}: the puzzle, as a scramble and the facelets it
+ *   reaches. Difficulties are {@code beginner} (2 random moves), {@code intermediate}
+ *   (15 random moves) and {@code hard} (a uniformly random state). Unlike the game's
+ *   {@link PuzzlePool.Tier}s they are not graded by solution length, which would take an
+ *   optimal search to rebuild a puzzle from its seed;</li>
+ *   <li>{@code /validate?moves=M} with a puzzle: whether the moves solve it;</li>
+ *   <li>{@code /solve} with a puzzle: a two-phase solution.</li>
+ * </ul>
+ * A puzzle is given either as {@code difficulty} and {@code seed} or as a {@code scramble} in
+ * standard notation. The same difficulty and seed always give the same puzzle, so the server
+ * keeps no per-puzzle state; a hard puzzle's state follows from its seed without a search,
+ * so only {@code /scramble} and {@code /solve} run the solver.
+ *
+ * <p>The server speaks just enough HTTP/1.1 for these endpoints: keep-alive, Content-Length
+ * bodies, no chunked requests. Each connection is served by its own thread with plain
+ * blocking I/O, a virtual thread where the runtime offers them, and each request works on its
+ * own {@link CubeState}; the solver tables are the only thing requests share, and they are
+ * read-only. A validation costs a few microseconds, so throughput is bound by the network
+ * stack, and the server writes each response with a single send.
+ */
+public final class PuzzleServer implements AutoCloseable {
+
+    private static final int MAX_BODY = 64 * 1024;
+    private static final int MAX_HEADER = 16 * 1024;
+    private static final int BACKLOG = 1024;
+    private static final int IDLE_MILLIS = 30_000;
+
+    private enum Difficulty {
+        BEGINNER(2), INTERMEDIATE(15), HARD(0);
+
+        final int moves; // scramble length, or 0 for a random state
+
+        Difficulty(int moves) {
+            this.moves = moves;
+        }
+
+        static Difficulty of(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown difficulty: " + name + " (beginner, intermediate, hard)");
+            }
+        }
+    }
+
+    /** A parsed request; {@code params} holds the query and form parameters. */
+    private record Request(String path, Map<String, String> params, boolean keepAlive) {}
+
+    private final ServerSocket socket;
+    private final ExecutorService threads;
+    private final boolean virtual;
+    private final TwoPhaseSolver solver;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+    private PuzzleServer(ServerSocket socket, ExecutorService threads, boolean virtual, TwoPhaseSolver solver) {
+        this.socket = socket;
+        this.threads = threads;
+        this.virtual = virtual;
+        this.solver = solver;
+    }
+
+    /** Starts serving on {@code address}; port 0 picks a free port. */
+    public static PuzzleServer start(InetSocketAddress address, TwoPhaseSolver solver) throws IOException {
+        ServerSocket socket = new ServerSocket();
+        try {
+            socket.bind(address, BACKLOG);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        ExecutorService threads = virtualThreadPerTask();
+        boolean virtual = threads != null;
+        if (!virtual) {
+            threads = Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "puzzle-connection");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        PuzzleServer s = new PuzzleServer(socket, threads, virtual, solver);
+        Thread acceptor = new Thread(s::accept, "puzzle-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return s;
+    }
+
+    public InetSocketAddress address() {
+        return (InetSocketAddress) socket.getLocalSocketAddress();
+    }
+
+    /** True when connections are served on virtual threads, false on the platform-thread fallback. */
+    public boolean virtualThreads() {
+        return virtual;
+    }
+
+    /** Stops accepting and closes every open connection. */
+    @Override
+    public void close() throws IOException {
+        socket.close();
+        threads.shutdown();
+        for (Socket c : connections) c.close();
+    }
+
+    /**
+     * An executor starting a virtual thread per task, or null without them. Virtual threads are
+     * a preview API in the Java 19 this project targets, so they are looked up reflectively and
+     * are only there on Java 21 or with {@code --enable-preview}; otherwise connections are
+     * served on pooled platform threads.
+     */
+    private static ExecutorService virtualThreadPerTask() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Connections
+
+    private void accept() {
+        while (!socket.isClosed()) {
+            Socket connection;
+            try {
+                connection = socket.accept();
+            } catch (IOException e) {
+                continue; // closed, which ends the loop, or a connection reset before it was accepted
+            }
+            try {
+                threads.execute(() -> serve(connection));
+            } catch (RejectedExecutionException e) {
+                closeQuietly(connection); // shutting down
+            }
+        }
+    }
+
+    private void serve(Socket connection) {
+        connections.add(connection);
+        try (connection) {
+            connection.setTcpNoDelay(true); // responses are one small write each
+            connection.setSoTimeout(IDLE_MILLIS);
+            InputStream in = new BufferedInputStream(connection.getInputStream());
+            OutputStream out = new BufferedOutputStream(connection.getOutputStream());
+            while (true) {
+                Request request;
+                try {
+                    request = read(in);
+                } catch (IllegalArgumentException e) {
+                    respond(out, 400, error(e.getMessage()), false);
+                    return;
+                }
+                if (request == null) return;
+                int status = 200;
+                String body;
+                try {
+                    body = switch (request.path()) {
+                        case "/scramble" -> scramble(request.params());
+                        case "/validate" -> validate(request.params());
+                        case "/solve" -> solve(request.params());
+                        default -> {
+                            status = 404;
+                            yield error("unknown endpoint: " + request.path() + " (/scramble, /validate, /solve)");
+                        }
+                    };
+                } catch (IllegalArgumentException e) {
+                    status = 400;
+                    body = error(e.getMessage());
+                } catch (RuntimeException e) {
+                    status = 500;
+                    body = error(e.toString());
+                }
+                respond(out, status, body, request.keepAlive());
+                if (!request.keepAlive()) return;
+            }
+        } catch (IOException e) {
+            // the client went away or idled out
+        } finally {
+            connections.remove(connection);
+        }
+    }
+
+    private static void respond(OutputStream out, int status, String body, boolean keepAlive) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String reason = switch (status) {
+            case 200 -> "OK";
+            case 400 -> "Bad Request";
+            case 404 -> "Not Found";
+            default -> "Internal Server Error";
+        };
+        out.write(("HTTP/1.1 " + status + " " + reason + "\r\nContent-Type: application/json\r\nContent-Length: "
+                + bytes.length + (keepAlive ? "" : "\r\nConnection: close") + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(bytes);
+        out.flush();
+    }
+
+    // ------------------------------------------------------------------
+    // Endpoints
+
+    private String scramble(Map<String, String> params) {
+        Difficulty difficulty = Difficulty.of(require(params, "difficulty"));
+        long seed = seed(params);
+        List<Move> scramble = difficulty == Difficulty.HARD
+                ? ScrambleGenerator.randomState(solver).next(new SplittableRandom(seed))
+                : ScrambleGenerator.randomMoves(new SplittableRandom(seed), difficulty.moves);
+        return "{\"difficulty\":\"" + difficulty.name().toLowerCase(Locale.ROOT) + "\",\"seed\":" + seed
+                + ",\"scramble\":\"" + Algorithm.of(scramble) + "\",\"facelets\":\"" + start(params).toFaceletString() + "\"}";
+    }
+
+    private String validate(Map<String, String> params) {
+        CubeState state = start(params);
+        Algorithm.parse(require(params, "moves")).applyTo(state);
+        return "{\"solved\":" + state.isSolved() + ",\"facelets\":\"" + state.toFaceletString() + "\"}";
+    }
+
+    private String solve(Map<String, String> params) {
+        List<Move> solution = solver.solve(start(params));
+        return "{\"solution\":\"" + Algorithm.of(solution) + "\",\"length\":" + solution.size() + "}";
+    }
+
+    /** The puzzle a request names, by scramble or by difficulty and seed. */
+    private static CubeState start(Map<String, String> params) {
+        if (params.containsKey("scramble")) {
+            CubeState state = new CubeState();
+            Algorithm.parse(params.get("scramble")).applyTo(state);
+            return state;
+        }
+        Difficulty difficulty = Difficulty.of(require(params, "difficulty"));
+        SplittableRandom rng = new SplittableRandom(seed(params));
+        // draws exactly what the scramble generators draw, so this is the state /scramble reaches
+        if (difficulty == Difficulty.HARD) return CubieCube.random(rng).toFacelets();
+        CubeState state = new CubeState();
+        for (Move m : ScrambleGenerator.randomMoves(rng, difficulty.moves)) state.apply(m);
+        return state;
+    }
+
+    private static long seed(Map<String, String> params) {
+        String seed = require(params, "seed");
+        try {
+            return Long.parseLong(seed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("seed expects a number: " + seed);
+        }
+    }
+
+    private static String require(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException(name.equals("difficulty") ? "missing scramble, or difficulty and seed" : "missing " + name);
+        }
+        return value;
+    }
+
+    private static String error(String message) {
+        StringBuilder sb = new StringBuilder("{\"error\":\"");
+        for (char c : message.toCharArray()) {
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.append("\"}").toString();
+    }
+
+    // ------------------------------------------------------------------
+    // HTTP parsing
+
+    /**
+     * Reads one request; null when the client closed the connection between requests. Throws
+     * IllegalArgumentException for requests this server does not handle.
+     */
+    private static Request read(InputStream in) throws IOException {
+        String requestLine = readLine(in, MAX_HEADER);
+        if (requestLine == null) return null;
+        String[] parts = requestLine.split(" ");
+        if (parts.length != 3 || !parts[2].startsWith("HTTP/1.")) throw new IllegalArgumentException("malformed request line");
+        String method = parts[0];
+        if (!method.equals("GET") && !method.equals("POST")) throw new IllegalArgumentException("unsupported method: " + method);
+        boolean keepAlive = parts[2].equals("HTTP/1.1");
+        int length = 0, headerBytes = requestLine.length();
+        while (true) {
+            String line = readLine(in, MAX_HEADER - headerBytes);
+            if (line == null) throw new IOException("connection closed mid-request");
+            if (line.isEmpty()) break;
+            headerBytes += line.length();
+            int colon = line.indexOf(':');
+            if (colon < 0) throw new IllegalArgumentException("malformed header");
+            String name = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            switch (name) {
+                case "content-length" -> {
+                    try {
+                        length = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("malformed content-length");
+                    }
+                    if (length < 0 || length > MAX_BODY) throw new IllegalArgumentException("request body over " + MAX_BODY + " bytes");
+                }
+                case "transfer-encoding" -> throw new IllegalArgumentException("chunked requests are not supported");
+                case "connection" -> keepAlive = value.equalsIgnoreCase("keep-alive")
+                        || keepAlive && !value.equalsIgnoreCase("close");
+                default -> { }
+            }
+        }
+        String target = parts[1];
+        int q = target.indexOf('?');
+        Map<String, String> params = new HashMap<>();
+        if (q >= 0) parseForm(target.substring(q + 1), params);
+        byte[] body = in.readNBytes(length);
+        if (body.length < length) throw new IOException("connection closed mid-request");
+        parseForm(new String(body, StandardCharsets.UTF_8), params); // form parameters win
+        return new Request(q < 0 ? target : target.substring(0, q), params, keepAlive);
+    }
+
+    /** One CRLF- or LF-terminated line; null at end of stream before its first byte. */
+    private static String readLine(InputStream in, int max) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c < 0) {
+                if (line.size() == 0) return null;
+                throw new IOException("connection closed mid-request");
+            }
+            if (line.size() >= max) throw new IllegalArgumentException("request header too large");
+            line.write(c);
+        }
+        int n = line.size();
+        byte[] bytes = line.toByteArray();
+        return new String(bytes, 0, n > 0 && bytes[n - 1] == '\r' ? n - 1 : n, StandardCharsets.ISO_8859_1);
+    }
+
+    private static void parseForm(String form, Map<String, String> out) {
+        if (form.isEmpty()) return;
+        for (String pair : form.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            out.put(name, value);
+        }
+    }
+
+    private static void closeQuietly(Socket s) {
+        try {
+            s.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
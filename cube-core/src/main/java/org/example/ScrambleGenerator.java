@@ -0,0 +1,166 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * Headless scramble source. Three kinds of scramble are available:
+ * <ul>
+ *   <li>uniformly random states, written out as the inverse of a two-phase solution;</li>
+ *   <li>random move sequences of a fixed length;</li>
+ *   <li>states at an exact optimal distance.</li>
+ * </ul>
+ * Scrambles come from a seeded {@link SplittableRandom}, so a batch is reproducible from its
+ * seed no matter how many threads write it.
+ */
+public final class ScrambleGenerator {
+
+    // scrambles per task; each chunk draws from its own split of the root generator
+    private static final int CHUNK = 1024;
+    // deeper exact-depth scrambles take too many optimal searches to find
+    public static final int MAX_EXACT_DEPTH = 13;
+
+    private final Function<SplittableRandom, List<Move>> source;
+
+    private ScrambleGenerator(Function<SplittableRandom, List<Move>> source) {
+        this.source = source;
+    }
+
+    /** Scrambles to a uniformly random state, each at most 22 moves. */
+    public static ScrambleGenerator randomState(TwoPhaseSolver solver) {
+        return new ScrambleGenerator(rng -> inverse(solver.solve(CubieCube.random(rng), TwoPhaseSolver.DEFAULT_MAX_LENGTH)));
+    }
+
+    /** Random face-move sequences of exactly {@code length} moves, none cancelling the last. */
+    public static ScrambleGenerator randomMoves(int length) {
+        return new ScrambleGenerator(rng -> randomMoves(rng, length));
+    }
+
+    /**
+     * Scrambles whose optimal solution is exactly {@code depth} moves. Each one is a random
+     * sequence that the solver confirms cannot be shortened, so this is only practical up to
+     * {@value #MAX_EXACT_DEPTH} moves and deeper ones are refused.
+     */
+    public static ScrambleGenerator exactDepth(int depth, OptimalSolver solver) {
+        if (depth < 0 || depth > MAX_EXACT_DEPTH) {
+            throw new IllegalArgumentException("Exact depth must be 0 to " + MAX_EXACT_DEPTH + ": " + depth);
+        }
+        return new ScrambleGenerator(rng -> {
+            while (true) {
+                List<Move> moves = randomMoves(rng, depth);
+                CubeState state = new CubeState();
+                for (Move m : moves) state.apply(m);
+                if (solver.distance(state) == depth) return moves;
+            }
+        });
+    }
+
+    /**
+     * A random sequence of face moves. Two turns of the same axis in a row are allowed only
+     * in U-before-D order, which rules out cancellations like R R' and repeats like U D U.
+     */
+    public static List<Move> randomMoves(RandomGenerator rng, int length) {
+        List<Move> moves = new ArrayList<>(length);
+        Move last = null;
+        while (moves.size() < length) {
+            Move m = Move.FACE_MOVES[rng.nextInt(Move.FACE_MOVES.length)];
+            if (last != null && m.axis() == last.axis() && m.layers() >= last.layers()) continue;
+            moves.add(m);
+            last = m;
+        }
+        return moves;
+    }
+
+    public List<Move> next(SplittableRandom rng) {
+        return source.apply(rng);
+    }
+
+    /**
+     * Writes {@code count} scrambles to {@code out}, one per line in standard notation. Chunks
+     * are generated in parallel but written in order, so the output only depends on the seed.
+     */
+    public void write(OutputStream out, long count, long seed) throws IOException {
+        write(out, count, seed, this::render);
+    }
+
+    /**
+     * Writes the states {@code count} scrambles reach as a {@link StateArchive}, chunked and
+     * seeded exactly like {@link #write(OutputStream, long, long)}.
+     */
+    public void writeStates(OutputStream out, long count, long seed) throws IOException {
+        out.write(StateArchive.header());
+        write(out, count, seed, this::pack);
+    }
+
+    private void write(OutputStream out, long count, long seed, BiFunction<SplittableRandom, Integer, byte[]> chunk)
+            throws IOException {
+        SplittableRandom root = new SplittableRandom(seed);
+        int window = 4 * Runtime.getRuntime().availableProcessors();
+        for (long done = 0; done < count; ) {
+            List<SplittableRandom> rngs = new ArrayList<>(window);
+            List<Integer> sizes = new ArrayList<>(window);
+            for (int i = 0; i < window && done < count; i++) {
+                int n = (int) Math.min(CHUNK, count - done);
+                rngs.add(root.split());
+                sizes.add(n);
+                done += n;
+            }
+            try {
+                IntStream.range(0, rngs.size()).parallel()
+                        .mapToObj(i -> chunk.apply(rngs.get(i), sizes.get(i)))
+                        .forEachOrdered(bytes -> {
+                            try {
+                                out.write(bytes);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        out.flush();
+    }
+
+    private byte[] render(SplittableRandom rng, int n) {
+        StringBuilder sb = new StringBuilder(n * 64);
+        for (int i = 0; i < n; i++) {
+            List<Move> moves = next(rng);
+            for (int j = 0; j < moves.size(); j++) {
+                if (j > 0) sb.append(' ');
+                sb.append(moves.get(j).notation());
+            }
+            sb.append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private byte[] pack(SplittableRandom rng, int n) {
+        ByteBuffer buf = ByteBuffer.allocate(n * CubeCodec.STATE_BYTES);
+        CubeState state = new CubeState();
+        for (int i = 0; i < n; i++) {
+            state.reset();
+            Algorithm.of(next(rng)).applyTo(state);
+            CubeCodec.putState(buf, state);
+        }
+        return buf.array();
+    }
+
+    private static List<Move> inverse(List<Move> solution) {
+        List<Move> scramble = new ArrayList<>(solution.size());
+        for (Move m : solution) scramble.add(m.inverse());
+        Collections.reverse(scramble);
+        return scramble;
+    }
+}
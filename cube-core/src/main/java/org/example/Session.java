@@ -0,0 +1,131 @@
+package org.example;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One played puzzle: the scrambled start state, the scramble that produced it, and every move
+ * with its time since the start. A typical game encodes in well under 200 bytes: a 9-byte
+ * header, the start state in {@value CubeCodec#STATE_BYTES} bytes, one byte per scramble move
+ * and usually two per played move (the move and a varint of milliseconds since the previous).
+ * Sessions are length-prefixed, so a file can hold any number of them back to back.
+ */
+public record Session(long startedAt, CubeState start, List<Move> scramble, List<TimedMove> moves) {
+
+    private static final int MAGIC = 0x52435353; // "RCSS"
+    private static final int VERSION = 1;
+    private static final int HEADER = 9; // magic, version, body length
+    private static final int MAX_BODY = 1 << 24;
+
+    /** A played move, {@code atMillis} after the session started. */
+    public record TimedMove(Move move, long atMillis) {}
+
+    public Session {
+        CubeState copy = new CubeState();
+        copy.copyFrom(start);
+        start = copy;
+        scramble = List.copyOf(scramble);
+        moves = List.copyOf(moves);
+        long previous = 0;
+        for (TimedMove m : moves) {
+            if (m.atMillis() < previous) throw new IllegalArgumentException("Move times go backwards at " + m);
+            previous = m.atMillis();
+        }
+    }
+
+    /** A copy of the start state. */
+    @Override
+    public CubeState start() {
+        CubeState copy = new CubeState();
+        copy.copyFrom(start);
+        return copy;
+    }
+
+    /** The start state with every move applied. */
+    public CubeState finalState() {
+        CubeState s = start();
+        for (TimedMove m : moves) s.apply(m.move());
+        return s;
+    }
+
+    public boolean isSolved() { return finalState().isSolved(); }
+
+    /** Time of the last move, or 0 before the first. */
+    public long elapsedMillis() {
+        return moves.isEmpty() ? 0 : moves.get(moves.size() - 1).atMillis();
+    }
+
+    /** Writes this session; the channel may already hold others. */
+    public void write(WritableByteChannel out) throws IOException {
+        int body = CubeCodec.varLongSize(startedAt) + CubeCodec.STATE_BYTES
+                + CubeCodec.varLongSize(scramble.size()) + scramble.size() + CubeCodec.varLongSize(moves.size());
+        long previous = 0;
+        for (TimedMove m : moves) {
+            body += 1 + CubeCodec.varLongSize(m.atMillis() - previous);
+            previous = m.atMillis();
+        }
+        ByteBuffer buf = ByteBuffer.allocate(HEADER + body);
+        buf.putInt(MAGIC).put((byte) VERSION).putInt(body);
+        CubeCodec.putVarLong(buf, startedAt);
+        CubeCodec.putState(buf, start);
+        CubeCodec.putVarLong(buf, scramble.size());
+        for (Move m : scramble) CubeCodec.putMove(buf, m);
+        CubeCodec.putVarLong(buf, moves.size());
+        previous = 0;
+        for (TimedMove m : moves) {
+            CubeCodec.putMove(buf, m.move());
+            CubeCodec.putVarLong(buf, m.atMillis() - previous);
+            previous = m.atMillis();
+        }
+        buf.flip();
+        while (buf.hasRemaining()) out.write(buf);
+    }
+
+    /** Reads the next session, or returns null at a clean end of the channel. */
+    public static Session read(ReadableByteChannel in) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        if (!fill(in, header)) return null;
+        if (header.getInt(0) != MAGIC || header.get(4) != VERSION) throw new IOException("Not a cube session");
+        int body = header.getInt(5);
+        if (body < 0 || body > MAX_BODY) throw new IOException("Bad session length " + body);
+        ByteBuffer buf = ByteBuffer.allocate(body);
+        if (!fill(in, buf)) throw new EOFException("Truncated session");
+        buf.flip();
+        try {
+            long startedAt = CubeCodec.getVarLong(buf);
+            CubeState start = new CubeState();
+            CubeCodec.getState(buf, start);
+            int n = CubeCodec.getVarInt(buf);
+            List<Move> scramble = new ArrayList<>(Math.min(n, body));
+            for (int i = 0; i < n; i++) scramble.add(CubeCodec.getMove(buf));
+            n = CubeCodec.getVarInt(buf);
+            List<TimedMove> moves = new ArrayList<>(Math.min(n, body));
+            long at = 0;
+            for (int i = 0; i < n; i++) {
+                Move m = CubeCodec.getMove(buf);
+                at += CubeCodec.getVarLong(buf);
+                moves.add(new TimedMove(m, at));
+            }
+            return new Session(startedAt, start, scramble, moves);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Corrupt session", e);
+        }
+    }
+
+    /** Reads until {@code buf} is full; false if the channel ended before the first byte. */
+    private static boolean fill(ReadableByteChannel in, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            if (in.read(buf) < 0) {
+                if (buf.position() == 0) return false;
+                throw new EOFException("Truncated session");
+            }
+        }
+        return true;
+    }
+}
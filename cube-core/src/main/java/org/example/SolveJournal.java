@@ -0,0 +1,187 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only log of games as timed events. After an 8-byte header, each event starts with one
+ * byte: a {@link Move} ordinal for a move, or {@code START} / {@code END} around a game.
+ *
+ * <pre>
+ *   START  epoch millis (varint), start state ({@value CubeCodec#STATE_BYTES} bytes)
+ *   move   millis since the previous event (varint)
+ *   END    millis since the previous event (varint), 1 if the player saw it solved, else 0
+ * </pre>
+ *
+ * <p>A move is usually two bytes. Writers buffer events and only touch the file on
+ * {@link Writer#flush()}; readers stream through a fixed buffer, so a journal of any size is
+ * read in constant memory.
+ */
+public final class SolveJournal {
+
+    private static final int MAGIC = 0x5243534A; // "RCSJ"
+    private static final int VERSION = 1;
+    private static final int HEADER = 8;
+    static final int START = 0x40;
+    static final int END = 0x41;
+    // longest event: START, a 10-byte varint and a state
+    private static final int MAX_EVENT = 1 + 10 + CubeCodec.STATE_BYTES;
+    private static final Move[] MOVES = Move.values();
+
+    private SolveJournal() {
+    }
+
+    /** Receives a journal's events in order. */
+    public interface Visitor {
+        void start(long epochMillis, CubeState start);
+
+        void move(Move move, long epochMillis);
+
+        void end(long epochMillis, boolean solved);
+    }
+
+    /** Opens {@code path} for appending, writing a header first if the file is new. */
+    public static Writer append(Path path) throws IOException {
+        return new Writer(path);
+    }
+
+    /** Buffered event writer. Not thread-safe; one writer per game thread. */
+    public static final class Writer implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+        private long last;
+
+        private Writer(Path path) throws IOException {
+            boolean fresh = !Files.exists(path) || Files.size(path) == 0;
+            if (!fresh) checkHeader(path);
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (fresh) buffer.putInt(MAGIC).putInt(VERSION);
+        }
+
+        /** Refuses to append to a file that {@link SolveJournal#read} would reject. */
+        private static void checkHeader(Path path) throws IOException {
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer buf = ByteBuffer.allocate(HEADER).limit(0);
+                if (!fill(ch, buf, HEADER) || buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                    throw new IOException(path + ": not a solve journal");
+                }
+            }
+        }
+
+        public void start(long epochMillis, CubeState start) throws IOException {
+            ensure();
+            buffer.put((byte) START);
+            CubeCodec.putVarLong(buffer, epochMillis);
+            CubeCodec.putState(buffer, start);
+            last = epochMillis;
+        }
+
+        public void move(Move move, long epochMillis) throws IOException {
+            ensure();
+            buffer.put((byte) move.ordinal());
+            CubeCodec.putVarLong(buffer, delta(epochMillis));
+        }
+
+        public void end(long epochMillis, boolean solved) throws IOException {
+            ensure();
+            buffer.put((byte) END);
+            CubeCodec.putVarLong(buffer, delta(epochMillis));
+            buffer.put((byte) (solved ? 1 : 0));
+        }
+
+        // a clock stepping backwards is logged as no time passing
+        private long delta(long epochMillis) {
+            long d = Math.max(0, epochMillis - last);
+            last += d;
+            return d;
+        }
+
+        private void ensure() throws IOException {
+            if (buffer.remaining() < MAX_EVENT) flush();
+        }
+
+        public void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Streams every event of {@code path} to {@code visitor}; returns the file size. Throws
+     * IOException naming the offset of the first malformed or truncated event.
+     */
+    public static long read(Path path, Visitor visitor) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20).limit(0);
+            if (!fill(ch, buf, HEADER) || buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                throw new IOException(path + ": not a solve journal");
+            }
+            CubeState state = new CubeState();
+            long base = 0; // file offset of buf position 0
+            long time = 0;
+            while (true) {
+                if (buf.remaining() < MAX_EVENT) {
+                    base += buf.position();
+                    buf.compact().flip();
+                    if (!fill(ch, buf, MAX_EVENT) && !buf.hasRemaining()) return base;
+                }
+                int at = buf.position();
+                try {
+                    int tag = buf.get() & 0xff;
+                    if (tag == START) {
+                        time = CubeCodec.getVarLong(buf);
+                        CubeCodec.getState(buf, state);
+                        visitor.start(time, state);
+                    } else if (tag == END) {
+                        time += CubeCodec.getVarLong(buf);
+                        visitor.end(time, buf.get() != 0);
+                    } else if (tag < MOVES.length) {
+                        time += CubeCodec.getVarLong(buf);
+                        visitor.move(MOVES[tag], time);
+                    } else {
+                        throw new IllegalArgumentException("unknown event " + tag);
+                    }
+                } catch (BufferUnderflowException e) {
+                    throw new EOFException(path + ": truncated event at offset " + (base + at));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(path + ": " + e.getMessage() + " at offset " + (base + at), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads from {@code ch} after the buffer's remaining bytes until at least {@code wanted}
+     * are available or the file ends; leaves the buffer ready for reading.
+     */
+    private static boolean fill(FileChannel ch, ByteBuffer buf, int wanted) throws IOException {
+        int start = buf.position();
+        buf.position(buf.limit()).limit(buf.capacity());
+        boolean more = true;
+        while (buf.position() - start < wanted) {
+            if (ch.read(buf) < 0) {
+                more = false;
+                break;
+            }
+        }
+        buf.limit(buf.position()).position(start);
+        return more;
+    }
+}
@@ -0,0 +1,124 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file of cube states at {@value CubeCodec#STATE_BYTES} bytes each after an 8-byte header, so a
+ * million states take 21 MB. Records have a fixed size, so state {@code i} is at a computed
+ * offset. Readers map the file and fetch any state without reading the rest. The count comes
+ * from the file size, so appending never rewrites the header.
+ *
+ * <p>Reads never move a buffer position, so one archive may be read from many threads.
+ */
+public final class StateArchive {
+
+    private static final int MAGIC = 0x52435341; // "RCSA"
+    private static final int VERSION = 1;
+    private static final int HEADER = 8;
+    private static final int RECORD = CubeCodec.STATE_BYTES;
+    // records per mapping, keeping each under the 2 GB limit of a MappedByteBuffer
+    private static final int SEGMENT_RECORDS = Integer.MAX_VALUE / RECORD;
+
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    private StateArchive(MappedByteBuffer[] segments, long size) {
+        this.segments = segments;
+        this.size = size;
+    }
+
+    /** Maps an archive for reading. A partly written last record is ignored. */
+    public static StateArchive open(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (ch.size() < HEADER) throw new IOException("Not a cube state archive: " + path);
+            MappedByteBuffer header = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a cube state archive: " + path);
+            }
+            long size = (ch.size() - HEADER) / RECORD;
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + SEGMENT_RECORDS - 1) / SEGMENT_RECORDS)];
+            for (int s = 0; s < segments.length; s++) {
+                long first = (long) s * SEGMENT_RECORDS;
+                long records = Math.min(SEGMENT_RECORDS, size - first);
+                segments[s] = ch.map(FileChannel.MapMode.READ_ONLY, HEADER + first * RECORD, records * RECORD);
+            }
+            return new StateArchive(segments, size);
+        }
+    }
+
+    /** Opens {@code path} for appending, creating it with a header if it does not exist. */
+    public static Writer append(Path path) throws IOException {
+        return new Writer(path);
+    }
+
+    /** The header a new archive starts with, for writers that stream one out directly. */
+    static byte[] header() {
+        return ByteBuffer.allocate(HEADER).putInt(MAGIC).putInt(VERSION).array();
+    }
+
+    public long size() { return size; }
+
+    /** Copies state {@code index} into {@code into}. */
+    public void get(long index, CubeState into) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("State " + index + " of " + size);
+        MappedByteBuffer segment = segments[(int) (index / SEGMENT_RECORDS)];
+        int offset = (int) (index % SEGMENT_RECORDS) * RECORD;
+        CubeCodec.getState(segment, offset, into);
+    }
+
+    /** Buffered appender; states become visible to {@link #open} once flushed or closed. */
+    public static final class Writer implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD * 4096);
+
+        private Writer(Path path) throws IOException {
+            boolean exists = Files.exists(path) && Files.size(path) > 0;
+            if (exists) checkHeader(path);
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (!exists) {
+                buffer.put(header());
+            } else if ((channel.size() - HEADER) % RECORD != 0) {
+                channel.close();
+                throw new IOException("Archive ends in a partial record: " + path);
+            }
+        }
+
+        /** Refuses to append to a file that {@link #open} would not read back. */
+        private static void checkHeader(Path path) throws IOException {
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (ch.size() < HEADER) throw new IOException("Not a cube state archive: " + path);
+                MappedByteBuffer header = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+                if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                    throw new IOException("Not a cube state archive: " + path);
+                }
+            }
+        }
+
+        public void add(CubeState state) throws IOException {
+            if (buffer.remaining() < RECORD) flush();
+            CubeCodec.putState(buffer, state);
+        }
+
+        public void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
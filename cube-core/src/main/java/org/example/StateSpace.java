@@ -0,0 +1,250 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A puzzle state space small enough to explore exhaustively, with a perfect-hash index:
+ * every state has a distinct index below {@link #size()}. Indices that no state reaches are
+ * allowed (the {@code <U,R>} index also covers permutations of the wrong parity) and simply
+ * stay unvisited. {@link StateSpaceExplorer} walks a space breadth-first through the index.
+ */
+public interface StateSpace {
+
+    /** Name used on the command line and in explorer files. */
+    String name();
+
+    /** Number of indices. */
+    long size();
+
+    /** Index of the solved state. */
+    long solved();
+
+    /** Moves available from every state, including inverses. */
+    List<Move> moves();
+
+    /** A new cursor; cursors are not thread-safe, so each thread uses its own. */
+    Cursor cursor();
+
+    /** Decodes one state and finds its neighbours without building intermediate objects. */
+    interface Cursor {
+        void load(long index);
+
+        /** Index of the state {@code moves().get(move)} leads to from the loaded one. */
+        long neighbor(int move);
+    }
+
+    /** Spaces known by name: {@code 2x2}, {@code ur} and {@code slices}. */
+    static StateSpace named(String name) {
+        return switch (name) {
+            case "2x2" -> pocket();
+            case "ur" -> ur();
+            case "slices" -> slices();
+            default -> throw new IllegalArgumentException("unknown state space: " + name + " (2x2, ur, slices)");
+        };
+    }
+
+    /**
+     * The 2x2x2 cube, modelled as the corners of a 3x3 turned with U, R and F only, so the DBL
+     * corner never moves: 7! permutations times 3<sup>6</sup> twists, 3,674,160 states.
+     */
+    static StateSpace pocket() {
+        return new CornerEdgeSpace("2x2", new int[]{0, 1, 2, 3, 4, 5, 7}, new int[0], 0b000111);
+    }
+
+    /**
+     * The {@code <U,R>} subgroup of the 3x3: six corners, seven edges that never flip. The index
+     * covers 7! edge permutations, 6! corner permutations and 3<sup>5</sup> twists, 882M entries,
+     * of which the 73,483,200 reachable ones are visited.
+     */
+    static StateSpace ur() {
+        return new CornerEdgeSpace("ur", new int[]{0, 1, 2, 3, 4, 7}, new int[]{0, 1, 2, 3, 4, 8, 11}, 0b000011);
+    }
+
+    /**
+     * Everything the M, E and S slice keys reach. The group has only 768 states and no handy
+     * coordinates, so its index is built by enumerating it once through {@link CubeState}
+     * hashing.
+     */
+    static StateSpace slices() {
+        List<Move> moves = List.of(Move.M, Move.M2, Move.M_PRIME, Move.E, Move.E2, Move.E_PRIME,
+                Move.S, Move.S2, Move.S_PRIME);
+        return EnumeratedSpace.of("slices", moves, 1 << 20);
+    }
+
+    /**
+     * Corners and edges moved by a subset of the outer faces, with the other pieces fixed. The
+     * index is the rank of the edge permutation, then the corner permutation, then the twists
+     * of all corners but the last, which the others determine. Edges in these spaces never
+     * flip, so flips are not indexed.
+     */
+    final class CornerEdgeSpace implements StateSpace {
+        private static final int[] POW3 = {1, 3, 9, 27, 81, 243, 729};
+
+        private final String name;
+        private final int[] corners, edges; // pieces that move, which are also the slots they visit
+        private final int[] cornerRank = new int[CubieCube.CORNERS], edgeRank = new int[CubieCube.EDGES];
+        private final int[] moveIds; // PatternDatabase move numbers
+        private final List<Move> moves = new ArrayList<>();
+        private final long cornerPerms, twists, size;
+
+        CornerEdgeSpace(String name, int[] corners, int[] edges, int faces) {
+            this.name = name;
+            this.corners = corners;
+            this.edges = edges;
+            for (int k = 0; k < corners.length; k++) cornerRank[corners[k]] = k;
+            for (int k = 0; k < edges.length; k++) edgeRank[edges[k]] = k;
+            Move[] named = {Move.U, Move.U2, Move.U_PRIME, Move.R, Move.R2, Move.R_PRIME, Move.F, Move.F2, Move.F_PRIME};
+            List<Integer> ids = new ArrayList<>();
+            for (int face = 0; face < 3; face++) {
+                if ((faces >> face & 1) == 0) continue;
+                for (int power = 0; power < 3; power++) {
+                    ids.add(face * 3 + power);
+                    moves.add(named[face * 3 + power]);
+                }
+            }
+            moveIds = ids.stream().mapToInt(Integer::intValue).toArray();
+            cornerPerms = factorial(corners.length);
+            twists = POW3[corners.length - 1];
+            size = factorial(edges.length) * cornerPerms * twists;
+        }
+
+        @Override public String name() { return name; }
+        @Override public long size() { return size; }
+        @Override public long solved() { return 0; }
+        @Override public List<Move> moves() { return moves; }
+
+        @Override
+        public Cursor cursor() {
+            return new Cursor() {
+                final byte[] cornerLoc = new byte[corners.length], edgeLoc = new byte[edges.length];
+                final int[] digits = new int[CubieCube.EDGES];
+
+                @Override
+                public void load(long index) {
+                    int twist = (int) (index % twists);
+                    long rest = index / twists;
+                    unrank((int) (rest % cornerPerms), corners, digits);
+                    int sum = 0;
+                    for (int k = 0; k < corners.length; k++) {
+                        int t = k < corners.length - 1 ? twist / POW3[k] % 3 : (3 - sum % 3) % 3;
+                        sum += t;
+                        cornerLoc[k] = (byte) (corners[digits[k]] * 3 + t);
+                    }
+                    unrank((int) (rest / cornerPerms), edges, digits);
+                    for (int k = 0; k < edges.length; k++) edgeLoc[k] = (byte) (edges[digits[k]] * 2);
+                }
+
+                @Override
+                public long neighbor(int move) {
+                    byte[] cornerMove = PatternDatabase.CORNER_MOVE[moveIds[move]];
+                    byte[] edgeMove = PatternDatabase.EDGE_MOVE[moveIds[move]];
+                    int used = 0, twist = 0;
+                    long perm = 0;
+                    for (int k = 0; k < edges.length; k++) {
+                        int slot = edgeRank[edgeMove[edgeLoc[k]] >> 1];
+                        perm = perm * (edges.length - k) + slot - Integer.bitCount(used & ((1 << slot) - 1));
+                        used |= 1 << slot;
+                    }
+                    used = 0;
+                    for (int k = 0; k < corners.length; k++) {
+                        int loc = cornerMove[cornerLoc[k]];
+                        int slot = cornerRank[loc / 3];
+                        perm = perm * (corners.length - k) + slot - Integer.bitCount(used & ((1 << slot) - 1));
+                        used |= 1 << slot;
+                        if (k < corners.length - 1) twist += loc % 3 * POW3[k];
+                    }
+                    return perm * twists + twist;
+                }
+            };
+        }
+
+        /** Inverse of the rank in {@link Cursor#neighbor}: the slot rank of each piece. */
+        private static void unrank(int r, int[] pieces, int[] out) {
+            int n = pieces.length;
+            for (int k = n - 1; k >= 0; k--) {
+                out[k] = r % (n - k);
+                r /= n - k;
+            }
+            int used = 0;
+            for (int k = 0; k < n; k++) {
+                int v = -1;
+                for (int c = out[k]; c >= 0; c--) {
+                    v++;
+                    while ((used >> v & 1) != 0) v++;
+                }
+                out[k] = v;
+                used |= 1 << v;
+            }
+        }
+
+        private static long factorial(int n) {
+            long f = 1;
+            for (int i = 2; i <= n; i++) f *= i;
+            return f;
+        }
+    }
+
+    /** A space small enough to list: states are numbered in the order a search finds them. */
+    final class EnumeratedSpace implements StateSpace {
+        private final String name;
+        private final List<Move> moves;
+        private final int[] next; // next[state * moves + move]
+
+        private EnumeratedSpace(String name, List<Move> moves, int[] next) {
+            this.name = name;
+            this.moves = moves;
+            this.next = next;
+        }
+
+        static EnumeratedSpace of(String name, List<Move> moves, int limit) {
+            Map<CubeState, Integer> index = new HashMap<>();
+            List<CubeState> states = new ArrayList<>();
+            states.add(new CubeState());
+            index.put(states.get(0), 0);
+            int[] next = new int[1024];
+            for (int i = 0; i < states.size(); i++) {
+                if (next.length < (i + 1) * moves.size()) next = Arrays.copyOf(next, next.length * 2);
+                for (int m = 0; m < moves.size(); m++) {
+                    CubeState s = new CubeState();
+                    s.copyFrom(states.get(i));
+                    s.apply(moves.get(m));
+                    Integer j = index.get(s);
+                    if (j == null) {
+                        if (states.size() == limit) throw new IllegalStateException(name + " has over " + limit + " states");
+                        j = states.size();
+                        index.put(s, j);
+                        states.add(s);
+                    }
+                    next[i * moves.size() + m] = j;
+                }
+            }
+            return new EnumeratedSpace(name, moves, Arrays.copyOf(next, states.size() * moves.size()));
+        }
+
+        @Override public String name() { return name; }
+        @Override public long size() { return next.length / moves.size(); }
+        @Override public long solved() { return 0; }
+        @Override public List<Move> moves() { return moves; }
+
+        @Override
+        public Cursor cursor() {
+            return new Cursor() {
+                int base;
+
+                @Override
+                public void load(long index) {
+                    base = (int) index * moves.size();
+                }
+
+                @Override
+                public long neighbor(int move) {
+                    return next[base + move];
+                }
+            };
+        }
+    }
+}
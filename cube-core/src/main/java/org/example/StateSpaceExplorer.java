@@ -0,0 +1,306 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Exhaustive breadth-first search of a {@link StateSpace}, giving the exact number of states
+ * at every distance from solved. The search keeps 2 bits per index in a memory-mapped file:
+ * the distance modulo 3, or {@code 3} for a state not yet seen. That one table is the visited
+ * set, the frontier and, when the search ends, a distance table: the exact distance of any
+ * state follows by stepping to a neighbour one closer until the solved state is reached.
+ *
+ * <p>Each level scans the table in chunks spread over the worker threads. Early levels expand
+ * the states at the current depth forward; once the frontier outgrows the unseen states, each
+ * unseen state instead looks for a neighbour at the current depth, as in
+ * {@link PatternDatabase}. Entries are claimed with a compare-and-set on the 32-bit word
+ * holding them. After every level the table is forced to disk and the header records the
+ * level and the per-depth counts, so a stopped run resumes from its last finished level. A
+ * level interrupted halfway needs no repair: every entry it wrote is already correct.
+ */
+public final class StateSpaceExplorer implements Closeable {
+
+    private static final int MAGIC = 0x52434246; // "RCBF"
+    private static final int VERSION = 1;
+    private static final int NAME_BYTES = 16;
+    private static final int MAX_DEPTH = 64;
+    // magic, version, name, size, levels, finished flag, counts; padded so the table is aligned
+    private static final int HEADER = 1024;
+    private static final int UNSEEN = 3;
+    private static final int ENTRIES_PER_WORD = 16;
+    private static final int CHUNK_WORDS = 1 << 14;
+    private static final VarHandle WORD = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final StateSpace space;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer file;
+    private final long words;
+    private final long[] counts = new long[MAX_DEPTH];
+    private int levels; // depths whose counts are final
+    private boolean finished;
+
+    private StateSpaceExplorer(StateSpace space, Path path, FileChannel channel, MappedByteBuffer file) {
+        this.space = space;
+        this.path = path;
+        this.channel = channel;
+        this.file = file;
+        this.words = (space.size() + ENTRIES_PER_WORD - 1) / ENTRIES_PER_WORD;
+    }
+
+    /**
+     * Opens the search of {@code space} stored at {@code path}, resuming it if the file holds
+     * an earlier run over the same space and starting a new one otherwise.
+     */
+    public static StateSpaceExplorer open(StateSpace space, Path path) throws IOException {
+        long words = (space.size() + ENTRIES_PER_WORD - 1) / ENTRIES_PER_WORD;
+        long length = HEADER + words * 4;
+        if (length > Integer.MAX_VALUE) throw new IllegalArgumentException(space.name() + " is too large to explore");
+        boolean resume = Files.isRegularFile(path) && Files.size(path) == length;
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer file = ch.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            file.order(ByteOrder.LITTLE_ENDIAN);
+            StateSpaceExplorer e = new StateSpaceExplorer(space, path, ch, file);
+            if (!resume || !e.readHeader()) e.reset();
+            return e;
+        } catch (IOException | RuntimeException ex) {
+            ch.close();
+            throw ex;
+        }
+    }
+
+    public StateSpace space() { return space; }
+
+    /** Number of depths counted so far; the deepest state is at {@code levels() - 1} once finished. */
+    public int levels() { return levels; }
+
+    public boolean isFinished() { return finished; }
+
+    /** States at each depth counted so far. */
+    public long[] counts() { return Arrays.copyOf(counts, levels); }
+
+    /**
+     * Runs the search to the end on {@code threads} threads, writing a checkpoint after every
+     * level and one line of progress per level to {@code log}.
+     */
+    public void run(int threads, PrintStream log) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        try {
+            long seen = 0;
+            for (int d = 0; d < levels; d++) seen += counts[d];
+            // entries a stopped run already wrote for the next level
+            long partial = levels > 0 && !finished ? countValue(pool, levels % 3) - sameResidue(levels) : 0;
+            while (!finished) {
+                int depth = levels - 1;
+                long frontier = counts[depth], unseen = space.size() - seen - partial;
+                boolean backward = frontier > unseen;
+                long start = System.nanoTime();
+                long found = partial + pool.submit(() -> IntStream.range(0, chunks()).parallel()
+                        .mapToLong(c -> expand(c, depth, backward)).sum()).join();
+                partial = 0;
+                if (found == 0) {
+                    finished = true;
+                } else {
+                    if (levels == MAX_DEPTH) throw new IllegalStateException(space.name() + " is deeper than " + MAX_DEPTH);
+                    counts[levels++] = found;
+                    seen += found;
+                    log.printf("depth %2d: %,15d states (%s, %.1fs)%n", depth + 1, found,
+                            backward ? "backward" : "forward", (System.nanoTime() - start) / 1e9);
+                }
+                checkpoint();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        writeCounts();
+    }
+
+    /**
+     * Exact distance of the state at {@code index} from solved, or -1 if the search has not
+     * reached it. Needs a finished search.
+     */
+    public int distance(long index) {
+        if (!finished) throw new IllegalStateException("search of " + space.name() + " has not finished");
+        if (get(index) == UNSEEN) return -1;
+        StateSpace.Cursor cursor = space.cursor();
+        int moves = space.moves().size();
+        int distance = 0;
+        while (index != space.solved()) {
+            int closer = (get(index) + 2) % 3;
+            cursor.load(index);
+            long next = -1;
+            for (int m = 0; m < moves && next < 0; m++) {
+                long n = cursor.neighbor(m);
+                if (get(n) == closer) next = n;
+            }
+            index = next;
+            distance++;
+        }
+        return distance;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // ------------------------------------------------------------------
+    // Search
+
+    private int chunks() {
+        return (int) ((words + CHUNK_WORDS - 1) / CHUNK_WORDS);
+    }
+
+    /** Runs one level over one chunk; returns the entries it claimed for depth + 1. */
+    private long expand(int chunk, int depth, boolean backward) {
+        StateSpace.Cursor cursor = space.cursor();
+        int moves = space.moves().size();
+        int current = depth % 3, next = (depth + 1) % 3;
+        long found = 0;
+        long firstWord = (long) chunk * CHUNK_WORDS, endWord = Math.min(words, firstWord + CHUNK_WORDS);
+        for (long w = firstWord; w < endWord; w++) {
+            int word = (int) WORD.get(file, wordOffset(w));
+            if (!backward && word == -1) continue; // nothing seen in this word yet
+            for (int k = 0; k < ENTRIES_PER_WORD; k++) {
+                int value = word >>> 2 * k & 3;
+                long index = w * ENTRIES_PER_WORD + k;
+                if (index >= space.size()) break;
+                if (backward) {
+                    if (value != UNSEEN) continue;
+                    cursor.load(index);
+                    for (int m = 0; m < moves; m++) {
+                        if (get(cursor.neighbor(m)) == current) {
+                            if (claim(index, next)) found++;
+                            break;
+                        }
+                    }
+                } else {
+                    // also revisits states 3, 6 ... levels back, whose neighbours are all seen
+                    if (value != current) continue;
+                    cursor.load(index);
+                    for (int m = 0; m < moves; m++) {
+                        if (claim(cursor.neighbor(m), next)) found++;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private long countValue(ForkJoinPool pool, int value) {
+        return pool.submit(() -> IntStream.range(0, chunks()).parallel().mapToLong(c -> {
+            long n = 0;
+            long firstWord = (long) c * CHUNK_WORDS, endWord = Math.min(words, firstWord + CHUNK_WORDS);
+            for (long w = firstWord; w < endWord; w++) {
+                for (int k = 0; k < ENTRIES_PER_WORD; k++) {
+                    if (w * ENTRIES_PER_WORD + k < space.size() && (getWord(w) >>> 2 * k & 3) == value) n++;
+                }
+            }
+            return n;
+        }).sum()).join();
+    }
+
+    /** States at finished depths that share the residue of {@code depth} modulo 3. */
+    private long sameResidue(int depth) {
+        long n = 0;
+        for (int d = depth - 3; d >= 0; d -= 3) n += counts[d];
+        return n;
+    }
+
+    private int get(long index) {
+        return getWord(index / ENTRIES_PER_WORD) >>> 2 * (int) (index % ENTRIES_PER_WORD) & 3;
+    }
+
+    private int getWord(long w) {
+        return (int) WORD.get(file, wordOffset(w));
+    }
+
+    /** Sets an unseen entry to {@code value}; false if it had been seen. */
+    private boolean claim(long index, int value) {
+        int offset = wordOffset(index / ENTRIES_PER_WORD);
+        int shift = 2 * (int) (index % ENTRIES_PER_WORD);
+        while (true) {
+            int word = (int) WORD.getVolatile(file, offset);
+            if ((word >>> shift & 3) != UNSEEN) return false;
+            int updated = word & ~(UNSEEN << shift) | value << shift;
+            if (WORD.compareAndSet(file, offset, word, updated)) return true;
+        }
+    }
+
+    private static int wordOffset(long w) {
+        return HEADER + (int) w * 4;
+    }
+
+    // ------------------------------------------------------------------
+    // File
+
+    private void reset() {
+        for (int i = HEADER; i < file.capacity(); i += 4) file.putInt(i, -1);
+        claim(space.solved(), 0);
+        Arrays.fill(counts, 0);
+        counts[0] = 1;
+        levels = 1;
+        finished = false;
+        checkpoint();
+    }
+
+    /** Loads the state of an earlier run; false if the file belongs to another space. */
+    private boolean readHeader() {
+        if (file.getInt(0) != MAGIC || file.getInt(4) != VERSION || file.getLong(8 + NAME_BYTES) != space.size()) {
+            return false;
+        }
+        if (!space.name().equals(readName())) return false;
+        levels = file.getInt(16 + NAME_BYTES);
+        finished = file.getInt(20 + NAME_BYTES) != 0;
+        if (levels < 1 || levels > MAX_DEPTH) return false;
+        for (int d = 0; d < MAX_DEPTH; d++) counts[d] = file.getLong(24 + NAME_BYTES + d * 8);
+        return true;
+    }
+
+    private String readName() {
+        byte[] name = new byte[NAME_BYTES];
+        file.get(8, name);
+        int n = 0;
+        while (n < NAME_BYTES && name[n] != 0) n++;
+        return new String(name, 0, n, StandardCharsets.US_ASCII);
+    }
+
+    /** Forces the table to disk, then the header that vouches for it. */
+    private void checkpoint() {
+        file.force(HEADER, file.capacity() - HEADER);
+        byte[] name = Arrays.copyOf(space.name().getBytes(StandardCharsets.US_ASCII), NAME_BYTES);
+        file.putInt(0, MAGIC).putInt(4, VERSION).put(8, name).putLong(8 + NAME_BYTES, space.size());
+        file.putInt(16 + NAME_BYTES, levels).putInt(20 + NAME_BYTES, finished ? 1 : 0);
+        for (int d = 0; d < MAX_DEPTH; d++) file.putLong(24 + NAME_BYTES + d * 8, counts[d]);
+        file.force(0, HEADER);
+    }
+
+    /** Writes the counts as text next to the table, one {@code depth count} line per depth. */
+    private void writeCounts() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# " + space.name() + ": states by distance from solved, moves " + space.moves());
+        long total = 0;
+        for (int d = 0; d < levels; d++) {
+            lines.add(d + " " + counts[d]);
+            total += counts[d];
+        }
+        lines.add("# total " + total);
+        Files.write(path.resolveSibling(path.getFileName() + ".counts"), lines);
+    }
+}
@@ -0,0 +1,151 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * The 48 symmetries of the cube: the 24 rotations and their mirror images, each a signed
+ * permutation matrix acting on cubie coordinates. Conjugating a state by a symmetry moves every
+ * sticker to its image position and relabels it with the image face. That maps the solved cube
+ * to itself and face turns to face turns, so it preserves the distance to solved.
+ */
+final class Symmetry {
+
+    static final int COUNT = 48;
+    static final Symmetry[] ALL = new Symmetry[COUNT];
+    static final int IDENTITY;
+    static final int X2; // half turn about the x axis
+
+    static {
+        int n = 0;
+        int[][] axisOrders = {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+        for (int[] order : axisOrders) {
+            for (int signs = 0; signs < 8; signs++) {
+                int[][] m = new int[3][3];
+                for (int r = 0; r < 3; r++) m[r][order[r]] = (signs >> r & 1) == 0 ? 1 : -1;
+                ALL[n] = new Symmetry(n, m);
+                n++;
+            }
+        }
+        for (Symmetry s : ALL) {
+            for (Symmetry t : ALL) {
+                if (isTranspose(s.matrix, t.matrix)) s.inverse = t.index;
+            }
+        }
+        IDENTITY = find(new int[][]{{1, 0, 0}, {0, 1, 0}, {0, 0, 1}});
+        X2 = find(new int[][]{{1, 0, 0}, {0, -1, 0}, {0, 0, -1}});
+    }
+
+    final int index;
+    final int[][] matrix;
+    final boolean mirror;
+    int inverse;
+
+    /** Facelet {@code i} moves to {@code facelet[i]}. */
+    final byte[] facelet = new byte[CubeState.FACELETS];
+    /** Face {@code f} maps to {@code face[f]}. */
+    final byte[] face = new byte[6];
+    /** Corner conjugation over {@code (slot * 8 + piece) * 3 + twist}, same packing out. */
+    final short[] corner = new short[CubieCube.CORNERS * CubieCube.CORNERS * 3];
+    /** Edge conjugation over {@code (slot * 12 + piece) * 2 + flip}, same packing out. */
+    final short[] edge = new short[CubieCube.EDGES * CubieCube.EDGES * 2];
+
+    private Symmetry(int index, int[][] matrix) {
+        this.index = index;
+        this.matrix = matrix;
+        this.mirror = determinant(matrix) < 0;
+        for (int f = 0; f < 6; f++) {
+            int[] n = apply(CubeState.normal(f));
+            face[f] = (byte) CubeState.faceOf(n[0], n[1], n[2]);
+        }
+        for (int i = 0; i < CubeState.FACELETS; i++) {
+            int[] p = apply(CubeState.position(i));
+            facelet[i] = (byte) CubeState.faceletAt(p[0], p[1], p[2], face[i / 9]);
+        }
+        buildPieceTables();
+    }
+
+    /** Slot a corner slot maps to. */
+    int cornerSlot(int slot) {
+        return corner[(slot * CubieCube.CORNERS + slot) * 3] / (CubieCube.CORNERS * 3);
+    }
+
+    /** Slot an edge slot maps to. */
+    int edgeSlot(int slot) {
+        return edge[(slot * CubieCube.EDGES + slot) * 2] / (CubieCube.EDGES * 2);
+    }
+
+    private int[] apply(int[] v) {
+        int[] r = new int[3];
+        for (int i = 0; i < 3; i++) r[i] = matrix[i][0] * v[0] + matrix[i][1] * v[1] + matrix[i][2] * v[2];
+        return r;
+    }
+
+    /**
+     * Derives the cubie-level action by placing one piece in a slot of a facelet model,
+     * moving its stickers and reading the piece back, which covers the mirrored orientation
+     * conventions without special cases.
+     */
+    private void buildPieceTables() {
+        int[] labels = new int[CubeState.FACELETS];
+        for (int slot = 0; slot < CubieCube.CORNERS; slot++) {
+            for (int piece = 0; piece < CubieCube.CORNERS; piece++) {
+                for (int twist = 0; twist < 3; twist++) {
+                    for (int k = 0; k < 3; k++) {
+                        int from = CubieCube.CORNER_FACELET[slot][(twist + k) % 3];
+                        labels[facelet[from]] = face[CubieCube.CORNER_FACELET[piece][k] / 9];
+                    }
+                    int to = cornerSlotOf(facelet[CubieCube.CORNER_FACELET[slot][0]]);
+                    corner[(slot * CubieCube.CORNERS + piece) * 3 + twist] =
+                            (short) (to * CubieCube.CORNERS * 3 + CubieCube.cornerAt(labels, to));
+                }
+            }
+        }
+        for (int slot = 0; slot < CubieCube.EDGES; slot++) {
+            for (int piece = 0; piece < CubieCube.EDGES; piece++) {
+                for (int flip = 0; flip < 2; flip++) {
+                    for (int k = 0; k < 2; k++) {
+                        int from = CubieCube.EDGE_FACELET[slot][(flip + k) % 2];
+                        labels[facelet[from]] = face[CubieCube.EDGE_FACELET[piece][k] / 9];
+                    }
+                    int to = edgeSlotOf(facelet[CubieCube.EDGE_FACELET[slot][0]]);
+                    edge[(slot * CubieCube.EDGES + piece) * 2 + flip] =
+                            (short) (to * CubieCube.EDGES * 2 + CubieCube.edgeAt(labels, to));
+                }
+            }
+        }
+    }
+
+    private static int cornerSlotOf(int facelet) {
+        for (int s = 0; s < CubieCube.CORNERS; s++) {
+            for (int f : CubieCube.CORNER_FACELET[s]) if (f == facelet) return s;
+        }
+        throw new IllegalArgumentException("Not a corner facelet: " + facelet);
+    }
+
+    private static int edgeSlotOf(int facelet) {
+        for (int s = 0; s < CubieCube.EDGES; s++) {
+            for (int f : CubieCube.EDGE_FACELET[s]) if (f == facelet) return s;
+        }
+        throw new IllegalArgumentException("Not an edge facelet: " + facelet);
+    }
+
+    private static int determinant(int[][] m) {
+        return m[0][0] * (m[1][1] * m[2][2] - m[1][2] * m[2][1])
+                - m[0][1] * (m[1][0] * m[2][2] - m[1][2] * m[2][0])
+                + m[0][2] * (m[1][0] * m[2][1] - m[1][1] * m[2][0]);
+    }
+
+    private static boolean isTranspose(int[][] a, int[][] b) {
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) if (a[i][j] != b[j][i]) return false;
+        }
+        return true;
+    }
+
+    private static int find(int[][] m) {
+        for (Symmetry s : ALL) {
+            if (Arrays.deepEquals(s.matrix, m)) return s.index;
+        }
+        throw new IllegalStateException("Missing symmetry");
+    }
+}
@@ -0,0 +1,213 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kociemba's two-phase solver. Phase 1 brings the cube into the subgroup generated by
+ * U, D, R2, F2, L2 and B2 (all pieces oriented, middle edges in the middle layer); phase 2
+ * solves it within that subgroup. Both phases are IDA* searches over the coordinates in
+ * {@link TwoPhaseTables}. A solution within 22 moves usually turns up in a few milliseconds, but
+ * some states take seconds, so the default {@link #solve(CubeState)} searches within a fixed
+ * budget and falls back to a longer solution when none that short turned up in time.
+ *
+ * <p>A solver instance only reads its tables and can be shared between threads.
+ */
+public final class TwoPhaseSolver {
+
+    public static final int DEFAULT_MAX_LENGTH = 22;
+    public static final long DEFAULT_SEARCH_MILLIS = 30;
+
+    // a longer phase 2 is cheaper to find through a different phase 1 solution
+    private static final int MAX_PHASE2_LENGTH = 12;
+    // every state is this close to the subgroup, and every subgroup state this close to solved
+    private static final int PHASE1_DIAMETER = 12, PHASE2_DIAMETER = 18;
+
+    // table move index -> move, in U, U2, U', R, R2, R' ... order
+    private static final Move[] MOVES = {
+            Move.U, Move.U2, Move.U_PRIME, Move.R, Move.R2, Move.R_PRIME,
+            Move.F, Move.F2, Move.F_PRIME, Move.D, Move.D2, Move.D_PRIME,
+            Move.L, Move.L2, Move.L_PRIME, Move.B, Move.B2, Move.B_PRIME
+    };
+
+    private final TwoPhaseTables tables;
+
+    private TwoPhaseSolver(TwoPhaseTables tables) {
+        this.tables = tables;
+    }
+
+    /** Loads the solver with its tables in the default location, building them on first use. */
+    public static TwoPhaseSolver load() throws IOException {
+        return load(TwoPhaseTables.defaultPath());
+    }
+
+    public static TwoPhaseSolver load(Path tableFile) throws IOException {
+        return new TwoPhaseSolver(TwoPhaseTables.load(tableFile));
+    }
+
+    /** {@link #solveWithin} the default budget of {@value #DEFAULT_SEARCH_MILLIS} ms. */
+    public List<Move> solve(CubeState state) {
+        return solveWithin(state, DEFAULT_SEARCH_MILLIS);
+    }
+
+    /**
+     * Returns face moves that solve {@code state} relative to its current centers, or null
+     * if there is no solution of at most {@code maxLength} moves.
+     */
+    public List<Move> solve(CubeState state, int maxLength) {
+        return solve(CubieCube.fromFacelets(state), maxLength);
+    }
+
+    List<Move> solve(CubieCube cube, int maxLength) {
+        return new Search(cube, maxLength, MAX_PHASE2_LENGTH, Long.MAX_VALUE).run();
+    }
+
+    /**
+     * Searches for {@code millis} at most and returns the shortest solution of at most
+     * {@code maxLength} moves found by then, or null if none turned up in time.
+     */
+    public List<Move> solve(CubeState state, int maxLength, long millis) {
+        return solve(CubieCube.fromFacelets(state), maxLength, System.nanoTime() + millis * 1_000_000);
+    }
+
+    private List<Move> solve(CubieCube cube, int maxLength, long deadline) {
+        List<Move> best = new Search(cube, maxLength, MAX_PHASE2_LENGTH, deadline).run();
+        while (best != null && !best.isEmpty() && System.nanoTime() < deadline) {
+            List<Move> shorter = new Search(cube, best.size() - 1, MAX_PHASE2_LENGTH, deadline).run();
+            if (shorter == null) break;
+            best = shorter;
+        }
+        return best;
+    }
+
+    /**
+     * Always returns a solution: the shortest of at most {@value #DEFAULT_MAX_LENGTH} moves found
+     * within {@code millis}, or else the first found with phase 2 uncapped. The first shortest
+     * phase 1 solution then always extends to a full one, so the fallback runs a single phase 2
+     * search, tens of milliseconds at worst, and gives at most 30 moves.
+     */
+    public List<Move> solveWithin(CubeState state, long millis) {
+        CubieCube cube = CubieCube.fromFacelets(state);
+        List<Move> best = solve(cube, DEFAULT_MAX_LENGTH, System.nanoTime() + millis * 1_000_000);
+        if (best != null) return best;
+        return new Search(cube, PHASE1_DIAMETER + PHASE2_DIAMETER, PHASE2_DIAMETER, Long.MAX_VALUE).run();
+    }
+
+    /** One solve; holds the move stack so the solver itself stays stateless. */
+    private final class Search {
+        private final TwoPhaseTables t = tables;
+        private final CubieCube start;
+        private final CubieCube scratch = new CubieCube();
+        private final int maxLength, maxPhase2;
+        private final long deadline;
+        private final int[] moves;
+        private int phase1Length;
+        private int nodes;
+        private boolean timedOut;
+
+        Search(CubieCube start, int maxLength, int maxPhase2, long deadline) {
+            this.start = start;
+            this.maxLength = maxLength;
+            this.maxPhase2 = maxPhase2;
+            this.deadline = deadline;
+            this.moves = new int[maxLength + 1];
+        }
+
+        List<Move> run() {
+            int twist = start.twist(), flip = start.flip(), slice = start.sliceSorted();
+            int corners = start.corners();
+            for (int depth = phase1Bound(twist, flip, slice); depth <= maxLength && !timedOut; depth++) {
+                int length = phase1(twist, flip, slice, corners, 0, depth);
+                if (length >= 0) {
+                    List<Move> solution = new ArrayList<>(length);
+                    for (int i = 0; i < length; i++) solution.add(MOVES[moves[i]]);
+                    return solution;
+                }
+            }
+            return null;
+        }
+
+        private int phase1Bound(int twist, int flip, int sliceSorted) {
+            int slice = sliceSorted / 24;
+            int h = Math.max(TwoPhaseTables.prune(t.sliceTwistPrune, slice * TwoPhaseTables.N_TWIST + twist),
+                    TwoPhaseTables.prune(t.sliceFlipPrune, slice * TwoPhaseTables.N_FLIP + flip));
+            return Math.max(h, TwoPhaseTables.prune(t.twistFlipPrune, twist * TwoPhaseTables.N_FLIP + flip));
+        }
+
+        /** Returns the total solution length, or -1 if none was found below this branch. */
+        private int phase1(int twist, int flip, int slice, int corners, int depth, int togo) {
+            if (outOfTime()) return -1;
+            if (togo == 0) {
+                // ending on a phase 2 move means a shorter phase 1 was already tried
+                if (depth > 0 && isPhase2Move(moves[depth - 1])) return -1;
+                // corners are valid in both phases, so check them before rebuilding the edges
+                int limit = Math.min(maxPhase2, maxLength - depth);
+                if (TwoPhaseTables.prune(t.cornersSlicePrune, slice * TwoPhaseTables.N_PERM + corners) > limit) {
+                    return -1;
+                }
+                phase1Length = depth;
+                return startPhase2(corners, slice, limit);
+            }
+            for (int m = 0; m < TwoPhaseTables.N_MOVES; m++) {
+                if (redundant(depth, m)) continue;
+                int tw = t.twistMove.get(twist * TwoPhaseTables.N_MOVES + m);
+                int fl = t.flipMove.get(flip * TwoPhaseTables.N_MOVES + m);
+                int sl = t.sliceSortedMove.get(slice * TwoPhaseTables.N_MOVES + m);
+                if (phase1Bound(tw, fl, sl) >= togo) continue;
+                moves[depth] = m;
+                int co = t.cornersMove.get(corners * TwoPhaseTables.N_MOVES + m);
+                int length = phase1(tw, fl, sl, co, depth + 1, togo - 1);
+                if (length >= 0) return length;
+            }
+            return -1;
+        }
+
+        private int startPhase2(int corners, int slice, int limit) {
+            scratch.copyFrom(start);
+            for (int i = 0; i < phase1Length; i++) scratch.turn(moves[i] / 3, moves[i] % 3 + 1);
+            int edges = scratch.udEdges();
+            for (int depth = phase2Bound(corners, edges, slice); depth <= limit; depth++) {
+                if (phase2(corners, edges, slice, phase1Length, depth)) return phase1Length + depth;
+            }
+            return -1;
+        }
+
+        private int phase2Bound(int corners, int edges, int slice) {
+            return Math.max(TwoPhaseTables.prune(t.cornersSlicePrune, slice * TwoPhaseTables.N_PERM + corners),
+                    TwoPhaseTables.prune(t.edgesSlicePrune, slice * TwoPhaseTables.N_PERM + edges));
+        }
+
+        private boolean phase2(int corners, int edges, int slice, int depth, int togo) {
+            if (togo == 0) return true;
+            if (outOfTime()) return false;
+            for (int m : TwoPhaseTables.PHASE2_MOVES) {
+                if (redundant(depth, m)) continue;
+                int co = t.cornersMove.get(corners * TwoPhaseTables.N_MOVES + m);
+                int ed = t.udEdgesMove.get(edges * TwoPhaseTables.N_MOVES + m);
+                int sl = t.sliceSortedMove.get(slice * TwoPhaseTables.N_MOVES + m);
+                if (phase2Bound(co, ed, sl) >= togo) continue;
+                moves[depth] = m;
+                if (phase2(co, ed, sl, depth + 1, togo - 1)) return true;
+            }
+            return false;
+        }
+
+        private boolean outOfTime() {
+            if ((++nodes & 0xfff) == 0 && System.nanoTime() > deadline) timedOut = true;
+            return timedOut;
+        }
+
+        /** Same face twice in a row, or opposite faces in the non-canonical order (D before U). */
+        private boolean redundant(int depth, int m) {
+            if (depth == 0) return false;
+            int face = m / 3, prev = moves[depth - 1] / 3;
+            return face == prev || face == prev - 3;
+        }
+    }
+
+    private static boolean isPhase2Move(int m) {
+        return m < 3 || (m >= 9 && m < 12) || m % 3 == 1;
+    }
+}
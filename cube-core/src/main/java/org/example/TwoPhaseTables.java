@@ -0,0 +1,239 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Coordinate move tables and pruning tables for {@link TwoPhaseSolver}. The tables are built
+ * from {@link CubieCube} once, written to a binary file and memory-mapped on every later run,
+ * so only the very first start pays for generating them.
+ *
+ * <p>Move tables hold one unsigned 16-bit entry per (coordinate, move) over the 18 face moves
+ * in U, U2, U', R, R2, R' ... B' order. Pruning tables hold a 4-bit distance per entry.
+ */
+final class TwoPhaseTables {
+
+    static final int N_MOVES = 18;
+    static final int N_TWIST = 2187;
+    static final int N_FLIP = 2048;
+    static final int N_SLICE = 495;
+    static final int N_SLICE_SORTED = 11880;
+    static final int N_PERM = 40320;
+    static final int N_PHASE2_SLICE = 24;
+
+    /** Moves allowed in phase 2: U, D quarter and half turns and the other faces' half turns. */
+    static final int[] PHASE2_MOVES = {0, 1, 2, 4, 7, 9, 10, 11, 13, 16};
+
+    private static final int MAGIC = 0x52433250; // "RC2P"
+    private static final int VERSION = 1;
+
+    final CharBuffer twistMove, flipMove, sliceSortedMove, cornersMove, udEdgesMove;
+    final ByteBuffer sliceTwistPrune, sliceFlipPrune, twistFlipPrune, cornersSlicePrune, edgesSlicePrune;
+
+    private TwoPhaseTables(ByteBuffer file) {
+        file.order(ByteOrder.LITTLE_ENDIAN);
+        int pos = 8;
+        twistMove = chars(file, pos, N_TWIST * N_MOVES);
+        pos += N_TWIST * N_MOVES * 2;
+        flipMove = chars(file, pos, N_FLIP * N_MOVES);
+        pos += N_FLIP * N_MOVES * 2;
+        sliceSortedMove = chars(file, pos, N_SLICE_SORTED * N_MOVES);
+        pos += N_SLICE_SORTED * N_MOVES * 2;
+        cornersMove = chars(file, pos, N_PERM * N_MOVES);
+        pos += N_PERM * N_MOVES * 2;
+        udEdgesMove = chars(file, pos, N_PERM * N_MOVES);
+        pos += N_PERM * N_MOVES * 2;
+        sliceTwistPrune = bytes(file, pos, nibbles(N_SLICE * N_TWIST));
+        pos += nibbles(N_SLICE * N_TWIST);
+        sliceFlipPrune = bytes(file, pos, nibbles(N_SLICE * N_FLIP));
+        pos += nibbles(N_SLICE * N_FLIP);
+        twistFlipPrune = bytes(file, pos, nibbles(N_TWIST * N_FLIP));
+        pos += nibbles(N_TWIST * N_FLIP);
+        cornersSlicePrune = bytes(file, pos, nibbles(N_PERM * N_PHASE2_SLICE));
+        pos += nibbles(N_PERM * N_PHASE2_SLICE);
+        edgesSlicePrune = bytes(file, pos, nibbles(N_PERM * N_PHASE2_SLICE));
+    }
+
+    /** Maps the table file at {@code path}, generating and writing it first if needed. */
+    static TwoPhaseTables load(Path path) throws IOException {
+        if (!isValid(path)) write(path);
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new TwoPhaseTables(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    /** Default location of the table file, under the user's home directory. */
+    static Path defaultPath() {
+        return Path.of(System.getProperty("user.home"), ".rubiks_cube", "twophase.tables");
+    }
+
+    static int prune(ByteBuffer table, int index) {
+        return (table.get(index >>> 1) >>> ((index & 1) << 2)) & 0x0f;
+    }
+
+    // ------------------------------------------------------------------
+    // File layout
+
+    private static long fileSize() {
+        return 8L + 2L * N_MOVES * (N_TWIST + N_FLIP + N_SLICE_SORTED + 2 * N_PERM)
+                + nibbles(N_SLICE * N_TWIST) + nibbles(N_SLICE * N_FLIP) + nibbles(N_TWIST * N_FLIP)
+                + 2L * nibbles(N_PERM * N_PHASE2_SLICE);
+    }
+
+    private static boolean isValid(Path path) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) != fileSize()) return false;
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            ch.read(header, 0);
+            return header.getInt(0) == MAGIC && header.getInt(4) == VERSION;
+        }
+    }
+
+    private static void write(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), "twophase", ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = ch.map(FileChannel.MapMode.READ_WRITE, 0, fileSize());
+            out.order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC).putInt(VERSION);
+
+            char[] twist = twistTable(), flip = flipTable(), sliceSorted = sliceSortedTable();
+            char[] corners = cornersTable(), udEdges = udEdgesTable();
+            for (char[] t : new char[][]{twist, flip, sliceSorted, corners, udEdges}) {
+                out.asCharBuffer().put(t);
+                out.position(out.position() + t.length * 2);
+            }
+            char[] slice = new char[N_SLICE * N_MOVES];
+            for (int s = 0; s < N_SLICE; s++) {
+                for (int m = 0; m < N_MOVES; m++) slice[s * N_MOVES + m] = (char) (sliceSorted[s * 24 * N_MOVES + m] / 24);
+            }
+            out.put(pruneTable(N_SLICE, slice, N_TWIST, twist, allMoves()));
+            out.put(pruneTable(N_SLICE, slice, N_FLIP, flip, allMoves()));
+            out.put(pruneTable(N_TWIST, twist, N_FLIP, flip, allMoves()));
+            out.put(pruneTable(N_PHASE2_SLICE, sliceSorted, N_PERM, corners, PHASE2_MOVES));
+            out.put(pruneTable(N_PHASE2_SLICE, sliceSorted, N_PERM, udEdges, PHASE2_MOVES));
+            out.force();
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static CharBuffer chars(ByteBuffer file, int pos, int count) {
+        return file.slice(pos, count * 2).order(ByteOrder.LITTLE_ENDIAN).asCharBuffer();
+    }
+
+    private static ByteBuffer bytes(ByteBuffer file, int pos, int count) {
+        return file.slice(pos, count);
+    }
+
+    private static int nibbles(int entries) {
+        return (entries + 1) / 2;
+    }
+
+    // ------------------------------------------------------------------
+    // Generation
+
+    private interface Coordinate {
+        void set(CubieCube c, int value);
+        int get(CubieCube c);
+    }
+
+    private static char[] moveTable(int size, Coordinate coord) {
+        char[] table = new char[size * N_MOVES];
+        CubieCube c = new CubieCube();
+        for (int i = 0; i < size; i++) {
+            for (int face = 0; face < 6; face++) {
+                coord.set(c, i);
+                for (int power = 0; power < 3; power++) {
+                    c.multiply(CubieCube.FACE_TURNS[face]);
+                    table[i * N_MOVES + face * 3 + power] = (char) coord.get(c);
+                }
+            }
+        }
+        return table;
+    }
+
+    private static char[] twistTable() {
+        return moveTable(N_TWIST, new Coordinate() {
+            public void set(CubieCube c, int v) { c.setTwist(v); }
+            public int get(CubieCube c) { return c.twist(); }
+        });
+    }
+
+    private static char[] flipTable() {
+        return moveTable(N_FLIP, new Coordinate() {
+            public void set(CubieCube c, int v) { c.setFlip(v); }
+            public int get(CubieCube c) { return c.flip(); }
+        });
+    }
+
+    private static char[] sliceSortedTable() {
+        return moveTable(N_SLICE_SORTED, new Coordinate() {
+            public void set(CubieCube c, int v) { c.setSliceSorted(v); }
+            public int get(CubieCube c) { return c.sliceSorted(); }
+        });
+    }
+
+    private static char[] cornersTable() {
+        return moveTable(N_PERM, new Coordinate() {
+            public void set(CubieCube c, int v) { c.setCorners(v); }
+            public int get(CubieCube c) { return c.corners(); }
+        });
+    }
+
+    /** Only entries for phase 2 moves are meaningful; the others are left at zero. */
+    private static char[] udEdgesTable() {
+        char[] table = new char[N_PERM * N_MOVES];
+        CubieCube c = new CubieCube();
+        for (int i = 0; i < N_PERM; i++) {
+            for (int m : PHASE2_MOVES) {
+                c.setUdEdges(i);
+                c.turn(m / 3, m % 3 + 1);
+                table[i * N_MOVES + m] = (char) c.udEdges();
+            }
+        }
+        return table;
+    }
+
+    private static int[] allMoves() {
+        int[] moves = new int[N_MOVES];
+        for (int m = 0; m < N_MOVES; m++) moves[m] = m;
+        return moves;
+    }
+
+    /**
+     * Breadth-first distances over the product of two coordinates, indexed
+     * {@code a * sizeB + b}, packed two entries per byte.
+     */
+    private static byte[] pruneTable(int sizeA, char[] moveA, int sizeB, char[] moveB, int[] moves) {
+        int n = sizeA * sizeB;
+        byte[] dist = new byte[n];
+        Arrays.fill(dist, (byte) -1);
+        dist[0] = 0;
+        int done = 1;
+        for (int depth = 0; done < n; depth++) {
+            for (int i = 0; i < n; i++) {
+                if (dist[i] != depth) continue;
+                int a = i / sizeB, b = i % sizeB;
+                for (int m : moves) {
+                    int j = moveA[a * N_MOVES + m] * sizeB + moveB[b * N_MOVES + m];
+                    if (dist[j] == -1) {
+                        dist[j] = (byte) (depth + 1);
+                        done++;
+                    }
+                }
+            }
+        }
+        byte[] packed = new byte[nibbles(n)];
+        for (int i = 0; i < n; i++) packed[i >>> 1] |= (byte) (Math.min(dist[i], 15) << ((i & 1) << 2));
+        return packed;
+    }
+}